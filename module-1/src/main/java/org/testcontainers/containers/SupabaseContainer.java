@@ -1,4 +1,554 @@
 package org.testcontainers.containers;
 
-public class SupabaseContainer {
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.lifecycle.Startable;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supabase as a set of containers on a shared network: Postgres, PostgREST, GoTrue, Realtime and a Kong gateway in
+ * front of them.
+ * <p>
+ * Every service is defined by a {@link ContainerDef}. All images are pulled right away, Postgres and the gateway start
+ * side by side, and the other services start together as soon as Postgres is ready, as Postgres is all they depend
+ * on. The gateway routes to the services by their network alias, so it does not have to wait for them.
+ */
+public class SupabaseContainer implements Startable {
+
+    private static final Logger log = LoggerFactory.getLogger(SupabaseContainer.class);
+
+    private static final DockerImageName DEFAULT_IMAGE_NAME = DockerImageName.parse("supabase/postgres");
+
+    private static final String DEFAULT_JWT_SECRET = "super-secret-jwt-token-with-at-least-32-characters-long";
+
+    private static final String REALTIME_SECRET_KEY_BASE =
+            "UpNVntn3cDxHJpq99YMc1T1AQgQpc8kfYTuRgBiYa15BLrx8etQoXz3gZv1/u2oq";
+
+    private static final String ROLES_SCRIPT = "/docker-entrypoint-initdb.d/init-scripts/99-roles.sql";
+
+    private static final String KONG_CONFIG = "/home/kong/kong.yml";
+
+    private static final long TOKEN_LIFETIME_SECONDS = TimeUnit.DAYS.toSeconds(365);
+
+    /**
+     * The services Supabase is made of.
+     */
+    public enum Service {
+
+        POSTGRES("db", 5432, DockerImageName.parse("supabase/postgres:15.1.1.55"), null, null),
+        REST("rest", 3000, DockerImageName.parse("postgrest/postgrest:v12.0.1"), "/rest/v1/", "/"),
+        AUTH("auth", 9999, DockerImageName.parse("supabase/gotrue:v2.143.0"), "/auth/v1/", "/"),
+        REALTIME("realtime", 4000, DockerImageName.parse("supabase/realtime:v2.25.50"), "/realtime/v1/", "/socket/"),
+        GATEWAY("kong", 8000, DockerImageName.parse("kong:2.8.1"), null, null);
+
+        private final String alias;
+
+        private final int port;
+
+        private final DockerImageName defaultImage;
+
+        private final String gatewayPath;
+
+        private final String upstreamPath;
+
+        Service(String alias, int port, DockerImageName defaultImage, String gatewayPath, String upstreamPath) {
+            this.alias = alias;
+            this.port = port;
+            this.defaultImage = defaultImage;
+            this.gatewayPath = gatewayPath;
+            this.upstreamPath = upstreamPath;
+        }
+
+        /**
+         * @return whether the service is only started once Postgres is ready.
+         */
+        public boolean dependsOnPostgres() {
+            return this.gatewayPath != null;
+        }
+    }
+
+    private final Map<Service, DockerImageName> images = new EnumMap<>(Service.class);
+
+    private final Map<Service, GenericContainer<?>> containers = new EnumMap<>(Service.class);
+
+    private final Map<Service, Timing> timings = new EnumMap<>(Service.class);
+
+    private String password = "password";
+
+    private String jwtSecret = DEFAULT_JWT_SECRET;
+
+    private Network network;
+
+    private ConnectionDetails connectionDetails;
+
+    public SupabaseContainer(final DockerImageName dockerImageName) {
+        dockerImageName.assertCompatibleWith(DEFAULT_IMAGE_NAME);
+        for (Service service : Service.values()) {
+            this.images.put(service, service.defaultImage);
+        }
+        this.images.put(Service.POSTGRES, dockerImageName);
+    }
+
+    public SupabaseContainer withPassword(final String password) {
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * Sets the secret the API keys are signed with, and that PostgREST, GoTrue and Realtime verify tokens with.
+     *
+     * @param jwtSecret at least 32 characters.
+     * @return this container.
+     */
+    public SupabaseContainer withJwtSecret(final String jwtSecret) {
+        this.jwtSecret = jwtSecret;
+        return this;
+    }
+
+    /**
+     * Runs <code>service</code> from another image than the default one.
+     *
+     * @param service the service other than {@link Service#POSTGRES}, whose image is given to the constructor.
+     * @param image the image to run it from.
+     * @return this container.
+     */
+    public SupabaseContainer withImage(final Service service, final DockerImageName image) {
+        if (service == Service.POSTGRES) {
+            throw new IllegalArgumentException("The Postgres image is given to the constructor");
+        }
+        image.assertCompatibleWith(DockerImageName.parse(service.defaultImage.getUnversionedPart()));
+        this.images.put(service, image);
+        return this;
+    }
+
+    @Override
+    public void start() {
+        final long origin = System.nanoTime();
+        final String anonKey = apiKey("anon");
+        final String serviceRoleKey = apiKey("service_role");
+        final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "supabase-startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.network = Network.newNetwork();
+        this.timings.clear();
+        this.containers.clear();
+        for (Service service : Service.values()) {
+            this.containers.put(service, new GenericContainer<>(containerDef(service, anonKey)));
+            this.timings.put(service, new Timing(service));
+        }
+        this.containers.get(Service.POSTGRES)
+                .withCopyToContainer(Transferable.of(rolesScript()), ROLES_SCRIPT);
+        this.containers.get(Service.GATEWAY)
+                .withCopyToContainer(Transferable.of(kongConfig()), KONG_CONFIG);
+
+        final Map<Service, CompletableFuture<Void>> ready = new EnumMap<>(Service.class);
+        try {
+            for (Service service : Service.values()) {
+                final GenericContainer<?> container = this.containers.get(service);
+                final Timing timing = this.timings.get(service);
+                final CompletableFuture<Void> pulled = CompletableFuture.runAsync(() -> {
+                    container.getDockerImageName();
+                    timing.pulled = System.nanoTime() - origin;
+                }, executor);
+                final CompletableFuture<Void> prerequisites = service.dependsOnPostgres()
+                        ? CompletableFuture.allOf(pulled, ready.get(Service.POSTGRES))
+                        : pulled;
+                ready.put(service, prerequisites.thenRunAsync(() -> {
+                    timing.started = System.nanoTime() - origin;
+                    container.start();
+                    timing.ready = System.nanoTime() - origin;
+                }, executor));
+            }
+            CompletableFuture.allOf(ready.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            // let the services that are still starting settle before they are stopped
+            for (CompletableFuture<Void> future : ready.values()) {
+                try {
+                    future.join();
+                } catch (CompletionException ignored) {
+                }
+            }
+            log.info("Supabase startup:\n{}", report());
+            stop();
+            throw new ContainerLaunchException("Could not start Supabase", e.getCause() != null ? e.getCause() : e);
+        } finally {
+            executor.shutdown();
+        }
+
+        GenericContainer<?> postgres = this.containers.get(Service.POSTGRES);
+        GenericContainer<?> gateway = this.containers.get(Service.GATEWAY);
+        String url = "http://" + gateway.getHost() + ":" + gateway.getMappedPort(Service.GATEWAY.port);
+        String jdbcUrl = "jdbc:postgresql://" + postgres.getHost() + ":" + postgres.getMappedPort(Service.POSTGRES.port)
+                + "/postgres";
+        this.connectionDetails = new ConnectionDetails(
+                jdbcUrl,
+                "postgres",
+                this.password,
+                url,
+                anonKey,
+                serviceRoleKey,
+                this.jwtSecret
+        );
+        log.info("Supabase startup:\n{}", report());
+    }
+
+    private ContainerDef containerDef(Service service, String anonKey) {
+        ContainerDef containerDef = new ContainerDef();
+        containerDef.setImage(this.images.get(service));
+        containerDef.setNetwork(this.network);
+        containerDef.addNetworkAlias(service.alias);
+        containerDef.addExposedTcpPort(service.port);
+        switch (service) {
+            case POSTGRES:
+                containerDef.addEnvVar("POSTGRES_PASSWORD", this.password);
+                containerDef.addEnvVar("JWT_SECRET", this.jwtSecret);
+                containerDef.addEnvVar("JWT_EXP", "3600");
+                containerDef.setWaitStrategy(
+                        Wait.forLogMessage(".*database system is ready to accept connections.*\\s", 2)
+                );
+                break;
+            case REST:
+                containerDef.addEnvVar("PGRST_DB_URI", databaseUrl("authenticator"));
+                containerDef.addEnvVar("PGRST_DB_SCHEMAS", "public,storage,graphql_public");
+                containerDef.addEnvVar("PGRST_DB_ANON_ROLE", "anon");
+                containerDef.addEnvVar("PGRST_JWT_SECRET", this.jwtSecret);
+                containerDef.addEnvVar("PGRST_DB_USE_LEGACY_GUCS", "false");
+                containerDef.setWaitStrategy(Wait.forHttp("/").forPort(service.port));
+                break;
+            case AUTH:
+                containerDef.addEnvVar("GOTRUE_API_HOST", "0.0.0.0");
+                containerDef.addEnvVar("GOTRUE_API_PORT", String.valueOf(service.port));
+                containerDef.addEnvVar("API_EXTERNAL_URL", "http://localhost:" + Service.GATEWAY.port);
+                containerDef.addEnvVar("GOTRUE_DB_DRIVER", "postgres");
+                containerDef.addEnvVar("GOTRUE_DB_DATABASE_URL", databaseUrl("supabase_auth_admin"));
+                containerDef.addEnvVar("GOTRUE_SITE_URL", "http://localhost:3000");
+                containerDef.addEnvVar("GOTRUE_JWT_SECRET", this.jwtSecret);
+                containerDef.addEnvVar("GOTRUE_JWT_EXP", "3600");
+                containerDef.addEnvVar("GOTRUE_JWT_AUD", "authenticated");
+                containerDef.addEnvVar("GOTRUE_JWT_DEFAULT_GROUP_NAME", "authenticated");
+                containerDef.addEnvVar("GOTRUE_JWT_ADMIN_ROLES", "service_role");
+                containerDef.addEnvVar("GOTRUE_EXTERNAL_EMAIL_ENABLED", "true");
+                containerDef.addEnvVar("GOTRUE_MAILER_AUTOCONFIRM", "true");
+                containerDef.setWaitStrategy(Wait.forHttp("/health").forPort(service.port));
+                break;
+            case REALTIME:
+                containerDef.addEnvVar("PORT", String.valueOf(service.port));
+                containerDef.addEnvVar("DB_HOST", Service.POSTGRES.alias);
+                containerDef.addEnvVar("DB_PORT", String.valueOf(Service.POSTGRES.port));
+                containerDef.addEnvVar("DB_USER", "supabase_admin");
+                containerDef.addEnvVar("DB_PASSWORD", this.password);
+                containerDef.addEnvVar("DB_NAME", "postgres");
+                containerDef.addEnvVar("DB_AFTER_CONNECT_QUERY", "SET search_path TO _realtime");
+                containerDef.addEnvVar("DB_ENC_KEY", "supabaserealtime");
+                containerDef.addEnvVar("API_JWT_SECRET", this.jwtSecret);
+                containerDef.addEnvVar("FLY_ALLOC_ID", "fly123");
+                containerDef.addEnvVar("FLY_APP_NAME", "realtime");
+                containerDef.addEnvVar("SECRET_KEY_BASE", REALTIME_SECRET_KEY_BASE);
+                containerDef.addEnvVar("ERL_AFLAGS", "-proto_dist inet_tcp");
+                containerDef.addEnvVar("ENABLE_TAILSCALE", "false");
+                containerDef.addEnvVar("DNS_NODES", "''");
+                containerDef.setCommand(
+                        "sh",
+                        "-c",
+                        "/app/bin/migrate"
+                                + " && /app/bin/realtime eval 'Realtime.Release.seeds(Realtime.Repo)'"
+                                + " && /app/bin/server"
+                );
+                containerDef.setWaitStrategy(
+                        Wait.forHttp("/api/tenants/realtime-dev/health")
+                                .forPort(service.port)
+                                .withHeader("Authorization", "Bearer " + anonKey)
+                );
+                break;
+            case GATEWAY:
+                containerDef.addEnvVar("KONG_DATABASE", "off");
+                containerDef.addEnvVar("KONG_DECLARATIVE_CONFIG", KONG_CONFIG);
+                containerDef.addEnvVar("KONG_DNS_ORDER", "LAST,A,CNAME");
+                // Kong answers 404 for paths without a route once it listens
+                containerDef.setWaitStrategy(Wait.forHttp("/").forPort(service.port).forStatusCode(404));
+                break;
+            default:
+                throw new IllegalStateException("Unknown service " + service);
+        }
+        return containerDef;
+    }
+
+    private String databaseUrl(String user) {
+        try {
+            return "postgres://" + user + ":" + URLEncoder.encode(this.password, StandardCharsets.UTF_8.name())
+                    + "@" + Service.POSTGRES.alias + ":" + Service.POSTGRES.port + "/postgres";
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The image creates the roles PostgREST and GoTrue log in with without a password, this gives them the password of
+     * <code>postgres</code>.
+     */
+    private static String rolesScript() {
+        return "\\set pgpass `echo \"$POSTGRES_PASSWORD\"`\n"
+                + "ALTER USER authenticator WITH PASSWORD :'pgpass';\n"
+                + "ALTER USER supabase_auth_admin WITH PASSWORD :'pgpass';\n";
+    }
+
+    private static String kongConfig() {
+        StringBuilder config = new StringBuilder("_format_version: '2.1'\n_transform: true\nservices:\n");
+        for (Service service : Service.values()) {
+            if (service.gatewayPath == null) {
+                continue;
+            }
+            config.append("  - name: ").append(service.alias).append('\n')
+                    .append("    url: http://").append(service.alias).append(':').append(service.port)
+                    .append(service.upstreamPath).append('\n')
+                    .append("    routes:\n")
+                    .append("      - name: ").append(service.alias).append('\n')
+                    .append("        strip_path: true\n")
+                    .append("        paths: ['").append(service.gatewayPath).append("']\n");
+        }
+        return config.toString();
+    }
+
+    /**
+     * Signs an API key for <code>role</code> with the JWT secret, as Supabase does for the anon and service role keys.
+     */
+    private String apiKey(String role) {
+        long now = System.currentTimeMillis() / 1000;
+        String header = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}");
+        String payload = base64Url(String.format(
+                "{\"role\":\"%s\",\"iss\":\"supabase\",\"iat\":%d,\"exp\":%d}", role, now, now + TOKEN_LIFETIME_SECONDS
+        ));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(this.jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] signature = mac.doFinal((header + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return header + "." + payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign the " + role + " key", e);
+        }
+    }
+
+    private static String base64Url(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stops all services, the ones that depend on Postgres first, and removes the network.
+     */
+    @Override
+    public void stop() {
+        List<Service> order = new ArrayList<>(this.containers.keySet());
+        Collections.reverse(order);
+        order.sort((left, right) -> Boolean.compare(right.dependsOnPostgres(), left.dependsOnPostgres()));
+        order.forEach(service -> this.containers.get(service).stop());
+        if (this.network != null) {
+            this.network.close();
+            this.network = null;
+        }
+        this.connectionDetails = null;
+    }
+
+    /**
+     * @return how to reach Supabase, once it is started.
+     */
+    public ConnectionDetails getConnectionDetails() {
+        if (this.connectionDetails == null) {
+            throw new IllegalStateException("Supabase is not started");
+        }
+        return this.connectionDetails;
+    }
+
+    public GenericContainer<?> getContainer(final Service service) {
+        return this.containers.get(service);
+    }
+
+    /**
+     * Gets how each service started during the last {@link #start()}.
+     *
+     * @return the timings by service.
+     */
+    public Map<Service, Timing> getStartupTimings() {
+        return Collections.unmodifiableMap(new EnumMap<>(this.timings));
+    }
+
+    /**
+     * Renders the timings of the last {@link #start()} with one line per service.
+     *
+     * @return the timing report.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (Timing timing : this.timings.values()) {
+            report.append(timing).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Everything needed to connect to Supabase: Postgres directly, and the other services through the gateway.
+     */
+    public static final class ConnectionDetails {
+
+        private final String jdbcUrl;
+
+        private final String username;
+
+        private final String password;
+
+        private final String url;
+
+        private final String anonKey;
+
+        private final String serviceRoleKey;
+
+        private final String jwtSecret;
+
+        private ConnectionDetails(String jdbcUrl, String username, String password, String url, String anonKey,
+                                  String serviceRoleKey, String jwtSecret) {
+            this.jdbcUrl = jdbcUrl;
+            this.username = username;
+            this.password = password;
+            this.url = url;
+            this.anonKey = anonKey;
+            this.serviceRoleKey = serviceRoleKey;
+            this.jwtSecret = jwtSecret;
+        }
+
+        public String getJdbcUrl() {
+            return this.jdbcUrl;
+        }
+
+        public String getUsername() {
+            return this.username;
+        }
+
+        public String getPassword() {
+            return this.password;
+        }
+
+        /**
+         * @return the URL of the gateway, which Supabase clients are created with.
+         */
+        public String getUrl() {
+            return this.url;
+        }
+
+        public String getRestUrl() {
+            return this.url + Service.REST.gatewayPath;
+        }
+
+        public String getAuthUrl() {
+            return this.url + Service.AUTH.gatewayPath;
+        }
+
+        public String getRealtimeUrl() {
+            return this.url.replaceFirst("^http", "ws") + Service.REALTIME.gatewayPath;
+        }
+
+        public String getAnonKey() {
+            return this.anonKey;
+        }
+
+        public String getServiceRoleKey() {
+            return this.serviceRoleKey;
+        }
+
+        public String getJwtSecret() {
+            return this.jwtSecret;
+        }
+    }
+
+    /**
+     * When a service went through its startup phases, as offsets from the start of {@link #start()}. Phases that did
+     * not happen are reported as {@code null}.
+     */
+    public static final class Timing {
+
+        private final Service service;
+
+        private volatile long pulled = -1;
+
+        private volatile long started = -1;
+
+        private volatile long ready = -1;
+
+        private Timing(Service service) {
+            this.service = service;
+        }
+
+        public Service getService() {
+            return this.service;
+        }
+
+        /**
+         * @return when the image of the service was available.
+         */
+        public Duration getPulled() {
+            return offset(this.pulled);
+        }
+
+        /**
+         * @return when the container was created and started, after its image and Postgres, if it depends on it,
+         * were ready.
+         */
+        public Duration getStarted() {
+            return offset(this.started);
+        }
+
+        /**
+         * @return when the wait strategy of the container passed.
+         */
+        public Duration getReady() {
+            return offset(this.ready);
+        }
+
+        /**
+         * @return how long the container took from being started until it was ready.
+         */
+        public Duration getStartupTime() {
+            return this.started < 0 || this.ready < 0 ? null : Duration.ofNanos(this.ready - this.started);
+        }
+
+        private static Duration offset(long nanos) {
+            return nanos < 0 ? null : Duration.ofNanos(nanos);
+        }
+
+        private static String millis(long nanos) {
+            return nanos < 0 ? "-" : "+" + Duration.ofNanos(nanos).toMillis() + "ms";
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-10s pulled %s start %s..%s",
+                    this.service,
+                    millis(this.pulled),
+                    millis(this.started),
+                    millis(this.ready)
+            );
+        }
+    }
 }
@@ -1,4 +1,73 @@
 package org.testcontainers.workshop;
 
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.SupabaseContainer;
+import org.testcontainers.containers.SupabaseContainer.ConnectionDetails;
+import org.testcontainers.containers.SupabaseContainer.Service;
+import org.testcontainers.containers.SupabaseContainer.Timing;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
 public class SupabaseContainerTest {
+
+    private static int get(String url, String apiKey) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestProperty("apikey", apiKey);
+            connection.setRequestProperty("Authorization", "Bearer " + apiKey);
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    void startsAllServices() throws SQLException, IOException {
+        try (SupabaseContainer supabase = new SupabaseContainer(DockerImageName.parse("supabase/postgres:15.1.1.55"))
+                .withPassword("testpassword")) {
+            supabase.start();
+            ConnectionDetails details = supabase.getConnectionDetails();
+
+            try (Connection connection = DriverManager.getConnection(
+                    details.getJdbcUrl(), details.getUsername(), details.getPassword());
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1)).isEqualTo(1);
+            }
+            assertThat(get(details.getRestUrl(), details.getAnonKey())).isEqualTo(200);
+            assertThat(get(details.getAuthUrl() + "health", details.getAnonKey())).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void startsDependentServicesOncePostgresIsReady() {
+        try (SupabaseContainer supabase = new SupabaseContainer(DockerImageName.parse("supabase/postgres:15.1.1.55"))) {
+            supabase.start();
+
+            Map<Service, Timing> timings = supabase.getStartupTimings();
+            Timing postgres = timings.get(Service.POSTGRES);
+            for (Service service : Service.values()) {
+                Timing timing = timings.get(service);
+                assertThat(timing.getStartupTime()).as("startup time of %s", service).isNotNull();
+                if (service.dependsOnPostgres()) {
+                    assertThat(timing.getStarted()).as("start of %s", service)
+                            .isGreaterThanOrEqualTo(postgres.getReady());
+                }
+            }
+        }
+    }
 }
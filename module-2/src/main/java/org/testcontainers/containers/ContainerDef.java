@@ -1,13 +1,15 @@
 package org.testcontainers.containers;
 
+import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.command.CreateContainerCmd;
 import com.github.dockerjava.api.model.Bind;
 import com.github.dockerjava.api.model.ExposedPort;
 import com.github.dockerjava.api.model.HostConfig;
 import com.github.dockerjava.api.model.InternetProtocol;
-import com.github.dockerjava.api.model.Network;
 import com.github.dockerjava.api.model.PortBinding;
 import com.github.dockerjava.api.model.Ports;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.wait.strategy.WaitStrategy;
 import org.testcontainers.images.RemoteDockerImage;
@@ -16,15 +18,24 @@ import org.testcontainers.utility.TestcontainersConfiguration;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
 
 class ContainerDef {
 
+    private static final Logger log = LoggerFactory.getLogger(ContainerDef.class);
+
+    private static final Map<DockerClient, Boolean> FILE_MOUNTING_SUPPORT = Collections.synchronizedMap(new WeakHashMap<>());
+
     private RemoteDockerImage image;
 
     Set<ExposedPort> exposedPorts = new LinkedHashSet<>();
@@ -35,11 +46,11 @@ class ContainerDef {
 
     Map<String, String> envVars = new HashMap<>();
 
-    private String[] entrypoint;
+    String[] entrypoint;
 
-    private String[] command = new String[0];
+    String[] command = new String[0];
 
-    private com.github.dockerjava.api.model.Network network;
+    private Network network;
 
     Set<String> networkAliases = new LinkedHashSet<>();
 
@@ -102,11 +113,8 @@ class ContainerDef {
             }
         }
 
-        boolean shouldCheckFileMountingSupport =
-                this.binds.size() > 0 && !TestcontainersConfiguration.getInstance().isDisableChecks();
-        if (shouldCheckFileMountingSupport) {
-            if (!DockerClientFactory.instance().isFileMountingSupported()) {
-            }
+        if (this.binds.size() > 0) {
+            checkFileMountingSupport();
         }
 
         hostConfig.withBinds(this.binds.toArray(new Bind[0]));
@@ -123,6 +131,58 @@ class ContainerDef {
         createCommand.withLabels(combinedLabels);
     }
 
+    /**
+     * Renders this definition into an immutable one whose {@link #applyTo(CreateContainerCmd)} reuses pre-built
+     * port bindings, environment, aliases and binds instead of recomputing them for every container.
+     *
+     * @return a frozen copy of this definition.
+     */
+    ContainerDef freeze() {
+        return new FrozenContainerDef(this);
+    }
+
+    /**
+     * Describes the container this definition creates. Network aliases and the wait strategy are left out, so two
+     * definitions with the same fingerprint produce interchangeable containers even though
+     * {@link GenericContainer} adds a random alias to each of them.
+     *
+     * @return the fingerprint of this definition.
+     */
+    String fingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append("image=").append(this.image).append('\n');
+        fingerprint.append("exposedPorts=").append(this.exposedPorts).append('\n');
+        fingerprint.append("portBindings=").append(new TreeSet<>(
+                this.portBindings.stream().map(it -> it.getBinding() + ":" + it.getExposedPort()).collect(Collectors.toSet())
+        )).append('\n');
+        fingerprint.append("labels=").append(new TreeMap<>(this.labels)).append('\n');
+        fingerprint.append("env=").append(new TreeMap<>(this.envVars)).append('\n');
+        fingerprint.append("entrypoint=").append(Arrays.toString(this.entrypoint)).append('\n');
+        fingerprint.append("command=").append(Arrays.toString(this.command)).append('\n');
+        fingerprint.append("network=").append(this.network == null ? this.networkMode : this.network.getId()).append('\n');
+        fingerprint.append("binds=").append(this.binds).append('\n');
+        fingerprint.append("privileged=").append(this.privilegedMode);
+        return fingerprint.toString();
+    }
+
+    static void checkFileMountingSupport() {
+        if (TestcontainersConfiguration.getInstance().isDisableChecks()) {
+            return;
+        }
+        DockerClient client = DockerClientFactory.instance().client();
+        boolean supported = FILE_MOUNTING_SUPPORT.computeIfAbsent(
+                client,
+                it -> DockerClientFactory.instance().isFileMountingSupported()
+        );
+        if (!supported) {
+            log.warn(
+                    "Unable to mount a file from test host into a running container. " +
+                            "This may be a misconfiguration or limitation of your Docker environment. " +
+                            "Some features might not work."
+            );
+        }
+    }
+
     protected void setImage(RemoteDockerImage image) {
         this.image = image;
     }
@@ -258,7 +318,7 @@ class ContainerDef {
         this.command = command;
     }
 
-    protected void setNetwork(com.github.dockerjava.api.model.Network network) {
+    protected void setNetwork(Network network) {
         this.network = network;
     }
 
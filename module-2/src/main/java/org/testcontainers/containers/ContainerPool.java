@@ -0,0 +1,436 @@
+package org.testcontainers.containers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of started containers that tests lease and give back instead of starting their own.
+ * <p>
+ * The pool starts up to {@code size} containers in the background and keeps them ready. A returned container is
+ * reset with the {@link ResetHook} before it is handed out again; if the reset fails, the container is stopped and
+ * replaced.
+ * <p>
+ * Pools obtained from {@link #shared(Supplier, int, ResetHook)} are keyed by the fingerprint of the container
+ * definition, so every test asking for the same kind of container draws from the same pool.
+ *
+ * @param <T> the type of the pooled containers.
+ */
+public class ContainerPool<T extends GenericContainer<?>> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ContainerPool.class);
+
+    private static final Duration DEFAULT_LEASE_TIMEOUT = Duration.ofMinutes(2);
+
+    /**
+     * How often in a row starting a container may fail before waiting leases fail with the cause.
+     */
+    private static final int MAX_START_ATTEMPTS = 3;
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final Map<String, ContainerPool<?>> SHARED_POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Brings a returned container back to a clean state, e.g. by dropping databases or truncating tables.
+     *
+     * @param <T> the type of the pooled containers.
+     */
+    @FunctionalInterface
+    public interface ResetHook<T> {
+
+        void reset(T container) throws Exception;
+    }
+
+    private final Supplier<T> factory;
+
+    private final int size;
+
+    private final ResetHook<? super T> resetHook;
+
+    private final String fingerprint;
+
+    private final BlockingQueue<T> idle = new LinkedBlockingQueue<>();
+
+    // GenericContainer equality covers its mutable state, so containers are tracked by identity
+    private final Set<T> containers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final AtomicInteger instances = new AtomicInteger();
+
+    private final ExecutorService executor;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final AtomicLong resetFailures = new AtomicLong();
+
+    private final AtomicLong startFailures = new AtomicLong();
+
+    private final AtomicInteger consecutiveStartFailures = new AtomicInteger();
+
+    private volatile Exception lastStartFailure;
+
+    private volatile boolean closed;
+
+    public ContainerPool(final Supplier<T> factory, final int size, final ResetHook<? super T> resetHook) {
+        this(factory, size, resetHook, null);
+    }
+
+    private ContainerPool(
+            final Supplier<T> factory,
+            final int size,
+            final ResetHook<? super T> resetHook,
+            final String fingerprint
+    ) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A container pool needs room for at least one container");
+        }
+        this.factory = factory;
+        this.size = size;
+        this.resetHook = resetHook;
+        this.fingerprint = fingerprint;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.min(size, 4), runnable -> {
+            Thread thread = new Thread(runnable, "testcontainers-pool-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    /**
+     * Gets the pool for the kind of container the <code>factory</code> creates, creating it on first use.
+     * The <code>size</code> and <code>resetHook</code> of the first caller win.
+     *
+     * @param factory creates a new, not yet started container.
+     * @param size how many containers the pool keeps at most.
+     * @param resetHook resets a container when it is given back.
+     * @param <T> the type of the pooled containers.
+     * @return the shared pool for this container definition.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends GenericContainer<?>> ContainerPool<T> shared(
+            final Supplier<T> factory,
+            final int size,
+            final ResetHook<? super T> resetHook
+    ) {
+        T prototype = factory.get();
+        String fingerprint = prototype.getClass().getName() + "\n" + prototype.getContainerDef().fingerprint();
+        return (ContainerPool<T>) SHARED_POOLS.computeIfAbsent(
+                fingerprint,
+                it -> new ContainerPool<>(factory, size, resetHook, it)
+        );
+    }
+
+    /**
+     * Leases a started container, waiting up to two minutes for one to become available.
+     *
+     * @return the lease, to be closed when the test is done with the container.
+     */
+    public Lease<T> lease() {
+        return lease(DEFAULT_LEASE_TIMEOUT);
+    }
+
+    /**
+     * Leases a started container, waiting up to <code>timeout</code> for one to become available.
+     *
+     * @param timeout how long to wait for a container.
+     * @return the lease, to be closed when the test is done with the container.
+     */
+    public Lease<T> lease(final Duration timeout) {
+        if (this.closed) {
+            throw new IllegalStateException("The container pool is closed");
+        }
+        final long start = System.nanoTime();
+        T container = this.idle.poll();
+        if (container != null) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+            // a new lease tries again, even if earlier leases gave up on failing starts
+            this.consecutiveStartFailures.updateAndGet(it -> it >= MAX_START_ATTEMPTS ? 0 : it);
+            refill();
+            container = awaitIdle(start + timeout.toNanos(), timeout);
+        }
+        final long waitNanos = System.nanoTime() - start;
+        this.totalWaitNanos.addAndGet(waitNanos);
+        this.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        return new Lease<>(this, container);
+    }
+
+    /**
+     * Waits for an idle container, failing as soon as starting containers has failed too often in a row.
+     */
+    private T awaitIdle(final long deadline, final Duration timeout) {
+        while (true) {
+            if (this.consecutiveStartFailures.get() >= MAX_START_ATTEMPTS) {
+                throw new ContainerLaunchException(
+                        "Could not start a pooled container in " + MAX_START_ATTEMPTS + " attempts",
+                        this.lastStartFailure
+                );
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                final ContainerLaunchException timedOut = new ContainerLaunchException(
+                        "No pooled container became available within " + timeout
+                );
+                if (this.lastStartFailure != null) {
+                    timedOut.addSuppressed(this.lastStartFailure);
+                }
+                throw timedOut;
+            }
+            try {
+                final T container = this.idle.poll(Math.min(remaining, POLL_INTERVAL_NANOS), TimeUnit.NANOSECONDS);
+                if (container != null) {
+                    return container;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContainerLaunchException("Interrupted while waiting for a pooled container", e);
+            }
+        }
+    }
+
+    private void giveBack(final T container) {
+        if (this.closed) {
+            container.stop();
+            return;
+        }
+        this.executor.execute(() -> {
+            try {
+                this.resetHook.reset(container);
+                this.idle.offer(container);
+            } catch (Exception e) {
+                log.warn("Could not reset pooled container {}, replacing it", container.getContainerId(), e);
+                this.resetFailures.incrementAndGet();
+                discard(container);
+                refill();
+            }
+        });
+    }
+
+    private void refill() {
+        while (!this.closed) {
+            int current = this.instances.get();
+            if (current >= this.size) {
+                return;
+            }
+            if (this.instances.compareAndSet(current, current + 1)) {
+                this.executor.execute(this::startOne);
+            }
+        }
+    }
+
+    private void startOne() {
+        final T container;
+        try {
+            container = this.factory.get();
+            container.start();
+        } catch (Exception e) {
+            log.warn("Could not start a pooled container", e);
+            this.lastStartFailure = e;
+            this.startFailures.incrementAndGet();
+            this.instances.decrementAndGet();
+            // retries until too many starts in a row have failed, which fails the waiting leases instead
+            if (this.consecutiveStartFailures.incrementAndGet() < MAX_START_ATTEMPTS) {
+                refill();
+            }
+            return;
+        }
+        this.consecutiveStartFailures.set(0);
+        this.containers.add(container);
+        if (this.closed) {
+            discard(container);
+        } else {
+            this.idle.offer(container);
+        }
+    }
+
+    private void discard(final T container) {
+        this.containers.remove(container);
+        this.instances.decrementAndGet();
+        container.stop();
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(
+                this.hits.get(),
+                this.misses.get(),
+                Duration.ofNanos(this.totalWaitNanos.get()),
+                Duration.ofNanos(this.maxWaitNanos.get()),
+                this.resetFailures.get(),
+                this.startFailures.get(),
+                this.idle.size(),
+                this.instances.get()
+        );
+    }
+
+    /**
+     * Stops every pooled container, including leased ones.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.fingerprint != null) {
+            SHARED_POOLS.remove(this.fingerprint, this);
+        }
+        this.executor.shutdownNow();
+        this.idle.clear();
+        this.containers.forEach(GenericContainer::stop);
+        this.containers.clear();
+    }
+
+    /**
+     * A leased container. Closing the lease gives the container back to the pool.
+     *
+     * @param <T> the type of the pooled containers.
+     */
+    public static final class Lease<T extends GenericContainer<?>> implements AutoCloseable {
+
+        private final ContainerPool<T> pool;
+
+        private final T container;
+
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private Lease(final ContainerPool<T> pool, final T container) {
+            this.pool = pool;
+            this.container = container;
+        }
+
+        public T getContainer() {
+            return this.container;
+        }
+
+        @Override
+        public void close() {
+            if (this.returned.compareAndSet(false, true)) {
+                this.pool.giveBack(this.container);
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the pool usage, for sizing it.
+     */
+    public static final class Metrics {
+
+        private final long hits;
+
+        private final long misses;
+
+        private final Duration totalWait;
+
+        private final Duration maxWait;
+
+        private final long resetFailures;
+
+        private final long startFailures;
+
+        private final int idle;
+
+        private final int instances;
+
+        private Metrics(
+                final long hits,
+                final long misses,
+                final Duration totalWait,
+                final Duration maxWait,
+                final long resetFailures,
+                final long startFailures,
+                final int idle,
+                final int instances
+        ) {
+            this.hits = hits;
+            this.misses = misses;
+            this.totalWait = totalWait;
+            this.maxWait = maxWait;
+            this.resetFailures = resetFailures;
+            this.startFailures = startFailures;
+            this.idle = idle;
+            this.instances = instances;
+        }
+
+        /**
+         * @return leases served by a container that was ready immediately.
+         */
+        public long getHits() {
+            return this.hits;
+        }
+
+        /**
+         * @return leases that had to wait for a container to start or to be given back.
+         */
+        public long getMisses() {
+            return this.misses;
+        }
+
+        public Duration getTotalWait() {
+            return this.totalWait;
+        }
+
+        public Duration getMaxWait() {
+            return this.maxWait;
+        }
+
+        public long getResetFailures() {
+            return this.resetFailures;
+        }
+
+        /**
+         * @return containers that failed to start.
+         */
+        public long getStartFailures() {
+            return this.startFailures;
+        }
+
+        /**
+         * @return containers that are started and ready to be leased.
+         */
+        public int getIdle() {
+            return this.idle;
+        }
+
+        /**
+         * @return containers that are leased, idle, being reset or starting.
+         */
+        public int getInstances() {
+            return this.instances;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "ContainerPool.Metrics[hits=%d, misses=%d, totalWait=%s, maxWait=%s, resetFailures=%d, startFailures=%d, idle=%d, instances=%d]",
+                    this.hits,
+                    this.misses,
+                    this.totalWait,
+                    this.maxWait,
+                    this.resetFailures,
+                    this.startFailures,
+                    this.idle,
+                    this.instances
+            );
+        }
+    }
+}
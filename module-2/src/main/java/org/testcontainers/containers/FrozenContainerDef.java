@@ -0,0 +1,168 @@
+package org.testcontainers.containers;
+
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.images.RemoteDockerImage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * An immutable {@link ContainerDef} whose create command settings are rendered once, when it is frozen.
+ * Applying it only hands the pre-built arrays to the command, apart from the labels map, which is copied because
+ * {@link GenericContainer} adds its own labels to it.
+ */
+final class FrozenContainerDef extends ContainerDef {
+
+    private final boolean frozen;
+
+    private final Ports portBindingsTemplate;
+
+    private final ExposedPort[] exposedPortsTemplate;
+
+    private final String[] envTemplate;
+
+    private final String[] aliasesTemplate;
+
+    private final Bind[] bindsTemplate;
+
+    FrozenContainerDef(ContainerDef source) {
+        super.setImage(source.getImage());
+        super.setNetwork(source.getNetwork());
+        super.setNetworkMode(source.getNetworkMode());
+        super.setPrivilegedMode(source.isPrivilegedMode());
+        super.setWaitStrategy(source.getWaitStrategy());
+        super.setEntrypoint(source.entrypoint == null ? null : source.entrypoint.clone());
+        super.setCommand(source.command == null ? null : source.command.clone());
+
+        this.exposedPorts = Collections.unmodifiableSet(new LinkedHashSet<>(source.exposedPorts));
+        this.portBindings = Collections.unmodifiableSet(new LinkedHashSet<>(source.portBindings));
+        this.labels = Collections.unmodifiableMap(new HashMap<>(source.labels));
+        this.envVars = Collections.unmodifiableMap(new LinkedHashMap<>(source.envVars));
+        this.networkAliases = Collections.unmodifiableSet(new LinkedHashSet<>(source.networkAliases));
+        this.binds = Collections.unmodifiableList(new ArrayList<>(source.binds));
+
+        Map<ExposedPort, PortBinding> allPortBindings = new LinkedHashMap<>();
+        for (ExposedPort exposedPort : this.exposedPorts) {
+            allPortBindings.put(exposedPort, new PortBinding(Ports.Binding.empty(), exposedPort));
+        }
+        for (PortBinding portBinding : this.portBindings) {
+            allPortBindings.put(portBinding.getExposedPort(), portBinding);
+        }
+        this.portBindingsTemplate = new Ports(allPortBindings.values().toArray(new PortBinding[0]));
+        this.exposedPortsTemplate = allPortBindings.keySet().toArray(new ExposedPort[0]);
+        this.envTemplate = this.envVars.entrySet()
+                .stream()
+                .filter(it -> it.getValue() != null)
+                .map(it -> it.getKey() + "=" + it.getValue())
+                .toArray(String[]::new);
+        this.aliasesTemplate = this.networkAliases.toArray(new String[0]);
+        this.bindsTemplate = this.binds.toArray(new Bind[0]);
+
+        if (this.bindsTemplate.length > 0) {
+            checkFileMountingSupport();
+        }
+        this.frozen = true;
+    }
+
+    @Override
+    protected void applyTo(CreateContainerCmd createCommand) {
+        HostConfig hostConfig = createCommand.getHostConfig();
+        if (hostConfig == null) {
+            hostConfig = new HostConfig();
+            createCommand.withHostConfig(hostConfig);
+        }
+        hostConfig.withPortBindings(this.portBindingsTemplate);
+        createCommand.withExposedPorts(this.exposedPortsTemplate);
+        createCommand.withEnv(this.envTemplate);
+
+        if (this.entrypoint != null) {
+            createCommand.withEntrypoint(this.entrypoint);
+        }
+
+        if (this.command != null) {
+            createCommand.withCmd(this.command);
+        }
+
+        if (getNetwork() != null) {
+            hostConfig.withNetworkMode(getNetwork().getId());
+            createCommand.withAliases(this.aliasesTemplate);
+        } else if (getNetworkMode() != null) {
+            hostConfig.withNetworkMode(getNetworkMode());
+        }
+
+        hostConfig.withBinds(this.bindsTemplate);
+
+        if (isPrivilegedMode()) {
+            hostConfig.withPrivileged(true);
+        }
+
+        Map<String, String> combinedLabels = new HashMap<>(this.labels);
+        if (createCommand.getLabels() != null) {
+            combinedLabels.putAll(createCommand.getLabels());
+        }
+        createCommand.withLabels(combinedLabels);
+    }
+
+    @Override
+    ContainerDef freeze() {
+        return this;
+    }
+
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("A frozen container definition cannot be modified");
+        }
+    }
+
+    @Override
+    protected void setImage(RemoteDockerImage image) {
+        checkNotFrozen();
+        super.setImage(image);
+    }
+
+    @Override
+    protected void setEntrypoint(String... entrypoint) {
+        checkNotFrozen();
+        super.setEntrypoint(entrypoint);
+    }
+
+    @Override
+    protected void setCommand(String... command) {
+        checkNotFrozen();
+        super.setCommand(command);
+    }
+
+    @Override
+    protected void setNetwork(Network network) {
+        checkNotFrozen();
+        super.setNetwork(network);
+    }
+
+    @Override
+    protected void setNetworkMode(String networkMode) {
+        checkNotFrozen();
+        super.setNetworkMode(networkMode);
+    }
+
+    @Override
+    protected void setPrivilegedMode(boolean privilegedMode) {
+        checkNotFrozen();
+        super.setPrivilegedMode(privilegedMode);
+    }
+
+    @Override
+    protected void setWaitStrategy(WaitStrategy waitStrategy) {
+        checkNotFrozen();
+        super.setWaitStrategy(waitStrategy);
+    }
+}
@@ -0,0 +1,132 @@
+package org.testcontainers.containers;
+
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps tarballs of MongoDB data directories on the host, keyed by image and seed hash. When more than
+ * {@code maxEntries} checkpoints are stored, the least recently used ones are deleted.
+ */
+public class MongoDBCheckpointStore {
+
+    private static final String CHECKPOINT_SUFFIX = ".tar";
+
+    private static final int DEFAULT_MAX_ENTRIES = 5;
+
+    private final Path directory;
+
+    private final int maxEntries;
+
+    public MongoDBCheckpointStore(final Path directory, final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets a store in {@code ~/.testcontainers/mongodb-checkpoints} that keeps the {@value #DEFAULT_MAX_ENTRIES} most
+     * recently used checkpoints.
+     *
+     * @return the default store.
+     */
+    public static MongoDBCheckpointStore defaultStore() {
+        return new MongoDBCheckpointStore(
+                Paths.get(System.getProperty("user.home"), ".testcontainers", "mongodb-checkpoints"),
+                DEFAULT_MAX_ENTRIES
+        );
+    }
+
+    static String key(final DockerImageName image, final String seedHash) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(image.asCanonicalNameString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(seedHash.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up a checkpoint and marks it as recently used.
+     */
+    Optional<Path> find(final String key) {
+        Path checkpoint = this.directory.resolve(key + CHECKPOINT_SUFFIX);
+        if (!Files.isRegularFile(checkpoint)) {
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(checkpoint, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // another process evicted it in the meantime
+            return Optional.empty();
+        }
+        return Optional.of(checkpoint);
+    }
+
+    /**
+     * Stores a checkpoint from a tar stream, replacing any existing one with the same key, and evicts the least
+     * recently used checkpoints beyond the limit.
+     */
+    void save(final String key, final InputStream tarStream) throws IOException {
+        Files.createDirectories(this.directory);
+        Path temporary = Files.createTempFile(this.directory, key, ".part");
+        try {
+            Files.copy(tarStream, temporary, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(
+                    temporary,
+                    this.directory.resolve(key + CHECKPOINT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        evict();
+    }
+
+    private void evict() throws IOException {
+        List<Path> checkpoints;
+        try (Stream<Path> files = Files.list(this.directory)) {
+            checkpoints = files
+                    .filter(it -> it.getFileName().toString().endsWith(CHECKPOINT_SUFFIX))
+                    .sorted(Comparator.comparing(MongoDBCheckpointStore::lastModified).reversed())
+                    .collect(Collectors.toList());
+        }
+        for (Path stale : checkpoints.subList(Math.min(this.maxEntries, checkpoints.size()), checkpoints.size())) {
+            Files.deleteIfExists(stale);
+        }
+    }
+
+    private static FileTime lastModified(final Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package org.testcontainers.containers;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
-import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.containers.wait.strategy.StreamingLogMessageWaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
 import org.testcontainers.shaded.org.checkerframework.checker.nullness.qual.NonNull;
 import org.testcontainers.utility.DockerImageName;
 import org.testcontainers.utility.MountableFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
 
@@ -18,13 +27,24 @@ public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
         MongoDBContainerDef() {
             addExposedTcpPort(MONGODB_INTERNAL_PORT);
             setCommand("--replSet", "docker-rs");
-            setWaitStrategy(Wait.forLogMessage("(?i).*waiting for connections.*", 1));
+            setWaitStrategy(waitForConnections());
         }
 
         void withSharding() {
         }
     }
 
+    /**
+     * Waits for the log line announcing that mongod or mongos accepts connections: the structured JSON line with
+     * id 23016 since MongoDB 4.4, the plain text line before.
+     */
+    static WaitStrategy waitForConnections() {
+        return new StreamingLogMessageWaitStrategy()
+                .withJsonField("msg", "Waiting for connections")
+                .withLiteral("\"id\":23016,")
+                .withLiteral("waiting for connections on port");
+    }
+
 
 
     private static final DockerImageName DEFAULT_IMAGE_NAME = DockerImageName.parse("mongo");
@@ -32,9 +52,46 @@ public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
 
     private static final int CONTAINER_EXIT_CODE_OK = 0;
     private static final int AWAIT_INIT_REPLICA_SET_ATTEMPTS = 60;
+    private static final long AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS = 30_000;
+    private static final String TIMING_MARKER = "tc-timing";
+    private static final int MONGODB_NOT_YET_INITIALIZED_CODE = 94;
+    private static final String DATA_DIRECTORY = "/data/db";
+    private static final String CHECKPOINT_HOSTNAME = "mongodb-checkpoint";
 
     private static final String MONGODB_DATABASE_NAME_DEFAULT = "test";
 
+    /**
+     * How the single node replica set is initialized once the container has started.
+     */
+    public enum ReplicaSetInitMode {
+        /**
+         * Runs the check, {@code rs.initiate()} and the wait for a primary as separate {@code mongosh} processes.
+         */
+        EXEC_PER_STEP,
+        /**
+         * Runs check, initiate and await in one script over a single exec, polling {@code hello} with exponential
+         * backoff instead of a fixed sleep.
+         */
+        SINGLE_EXEC,
+        /**
+         * Sends {@code replSetInitiate} and {@code hello} straight to the mapped port over the wire protocol,
+         * without any exec into the container. Works with images that ship without {@code mongosh}.
+         */
+        WIRE_PROTOCOL,
+    }
+
+    private ReplicaSetInitMode replicaSetInitMode = ReplicaSetInitMode.EXEC_PER_STEP;
+
+    private final Map<String, Duration> replicaSetInitTimings = new LinkedHashMap<>();
+
+    private final DockerImageName dockerImageName;
+
+    private MongoDBCheckpointStore checkpointStore;
+
+    private String checkpointKey;
+
+    private boolean restoredFromCheckpoint;
+
     public MongoDBContainer(@NonNull final String dockerImageName) {
         this(DockerImageName.parse(dockerImageName));
     }
@@ -42,6 +99,95 @@ public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
     public MongoDBContainer(final DockerImageName dockerImageName) {
         super(dockerImageName);
         dockerImageName.assertCompatibleWith(DEFAULT_IMAGE_NAME);
+        this.dockerImageName = dockerImageName;
+    }
+
+    public MongoDBContainer withReplicaSetInitMode(final ReplicaSetInitMode replicaSetInitMode) {
+        this.replicaSetInitMode = replicaSetInitMode;
+        return this;
+    }
+
+    /**
+     * Restores {@value #DATA_DIRECTORY} from a checkpoint taken with {@link #checkpoint()}, if the default
+     * {@link MongoDBCheckpointStore} has one for this image and <code>seedHash</code>.
+     *
+     * @param seedHash identifies the data the checkpoint was seeded with, e.g. a hash of the fixture files.
+     * @return this container.
+     */
+    public MongoDBContainer withDataCheckpoint(final String seedHash) {
+        return withDataCheckpoint(MongoDBCheckpointStore.defaultStore(), seedHash);
+    }
+
+    /**
+     * Restores {@value #DATA_DIRECTORY} from a checkpoint taken with {@link #checkpoint()}, if the given
+     * <code>checkpointStore</code> has one for this image and <code>seedHash</code>.
+     * The container hostname is pinned so that the replica set configuration in the checkpoint stays valid.
+     *
+     * @param checkpointStore where checkpoints are kept.
+     * @param seedHash identifies the data the checkpoint was seeded with, e.g. a hash of the fixture files.
+     * @return this container.
+     */
+    public MongoDBContainer withDataCheckpoint(final MongoDBCheckpointStore checkpointStore, final String seedHash) {
+        this.checkpointStore = checkpointStore;
+        this.checkpointKey = MongoDBCheckpointStore.key(this.dockerImageName, seedHash);
+        return withCreateContainerCmdModifier(cmd -> cmd.withHostName(CHECKPOINT_HOSTNAME));
+    }
+
+    /**
+     * Whether the data directory was restored from a checkpoint on start, in which case seeding can be skipped.
+     *
+     * @return <code>true</code> if the container started from a checkpoint.
+     */
+    public boolean isRestoredFromCheckpoint() {
+        return this.restoredFromCheckpoint;
+    }
+
+    /**
+     * Takes a checkpoint of {@value #DATA_DIRECTORY} that later containers configured with the same image and seed
+     * hash start from. Writes are blocked with {@code fsyncLock} while the data directory is copied.
+     */
+    public void checkpoint() {
+        if (this.checkpointKey == null) {
+            throw new IllegalStateException("withDataCheckpoint must be configured before taking a checkpoint");
+        }
+        try (
+                MongoWireClient client = MongoWireClient.connect(
+                        getHost(),
+                        getMappedPort(MongoDBContainerDef.MONGODB_INTERNAL_PORT),
+                        Duration.ofMillis(AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS)
+                )
+        ) {
+            final Map<String, Object> fsyncLock = new LinkedHashMap<>();
+            fsyncLock.put("fsync", 1);
+            fsyncLock.put("lock", true);
+            final Map<String, Object> locked = client.runCommand("admin", fsyncLock);
+            if (!MongoWireClient.isOk(locked)) {
+                throw new IllegalStateException(String.format("Could not lock the data directory: %s", locked.get("errmsg")));
+            }
+            try (
+                    InputStream tarStream = getDockerClient()
+                            .copyArchiveFromContainerCmd(getContainerId(), DATA_DIRECTORY)
+                            .exec()
+            ) {
+                this.checkpointStore.save(this.checkpointKey, tarStream);
+            } finally {
+                client.runCommand("admin", Collections.singletonMap("fsyncUnlock", 1));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the time spent in each phase of the last replica set initialization, in execution order.
+     * Phases are {@code check}, {@code initiate} and {@code await}, plus {@code exec} for the whole round trip
+     * of the {@link ReplicaSetInitMode#SINGLE_EXEC} script and {@code connect} for
+     * {@link ReplicaSetInitMode#WIRE_PROTOCOL}.
+     *
+     * @return phase names mapped to their durations.
+     */
+    public Map<String, Duration> getReplicaSetInitTimings() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(this.replicaSetInitTimings));
     }
 
     @Override
@@ -55,6 +201,28 @@ public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
     }
 
 
+    @Override
+    protected void containerIsCreated(String containerId) {
+        this.restoredFromCheckpoint = false;
+        if (this.checkpointKey == null) {
+            return;
+        }
+        final Optional<Path> checkpoint = this.checkpointStore.find(this.checkpointKey);
+        if (checkpoint.isPresent()) {
+            try (InputStream tarStream = Files.newInputStream(checkpoint.get())) {
+                // the archive holds the 'db' directory itself, so it is extracted into its parent
+                getDockerClient()
+                        .copyArchiveToContainerCmd(containerId)
+                        .withRemotePath("/data")
+                        .withTarInputStream(tarStream)
+                        .exec();
+                this.restoredFromCheckpoint = true;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     @Override
     protected void containerIsStarted(InspectContainerResponse containerInfo, boolean reused) {
         try {
@@ -105,6 +273,22 @@ public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
         };
     }
 
+    /**
+     * Runs <code>script</code> once with {@code mongosh}, or with the legacy {@code mongo} shell on images that ship
+     * without it. Unlike {@link #buildMongoEvalCommand(String)}, a script that fails is not run a second time.
+     * The script is passed as a positional parameter, so it needs no quoting.
+     */
+    static String[] buildMongoSingleEvalCommand(final String script) {
+        return new String[] {
+                "sh",
+                "-c",
+                "if command -v mongosh > /dev/null 2>&1; then exec mongosh --quiet --eval \"$1\"; " +
+                        "else exec mongo --quiet --eval \"$1\"; fi",
+                "sh",
+                script,
+        };
+    }
+
     private void checkMongoNodeExitCode(final Container.ExecResult execResult) {
         if (execResult.getExitCode() != CONTAINER_EXIT_CODE_OK) {
             final String errorMessage = String.format("An error occurred: %s", execResult.getStdout());
@@ -137,16 +321,142 @@ public class MongoDBContainer extends GenericContainer<MongoDBContainer> {
         }
     }
 
+    static String buildMongoInitAndWaitScript() {
+        return String.format(
+                "var start = Date.now(); var mark = start; " +
+                        "function phase(name) { var now = Date.now(); print('%1$s ' + name + ' ' + (now - mark)); mark = now; } " +
+                        "function isPrimary() { " +
+                        "var hello = db.adminCommand({ hello: 1 }); " +
+                        "if (hello.ok != 1) { hello = db.adminCommand({ isMaster: 1 }); } " +
+                        "return hello.isWritablePrimary == true || hello.ismaster == true; " +
+                        "} " +
+                        "var status = db.adminCommand({ replSetGetStatus: 1 }); " +
+                        "phase('check'); " +
+                        "if (status.myState != 1) { " +
+                        "if (status.ok != 1 && status.code == %2$d) { " +
+                        "var initiated = db.adminCommand({ replSetInitiate: {} }); " +
+                        "if (initiated.ok != 1) { print(initiated.errmsg); quit(2); } " +
+                        "} " +
+                        "phase('initiate'); " +
+                        "var delay = 5; " +
+                        "while (!isPrimary()) { " +
+                        "if (Date.now() - start > %3$d) { print('%1$s timeout'); quit(1); } " +
+                        "sleep(delay); delay = Math.min(delay * 2, 500); " +
+                        "} " +
+                        "phase('await'); " +
+                        "}",
+                TIMING_MARKER,
+                MONGODB_NOT_YET_INITIALIZED_CODE,
+                AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS
+        );
+    }
+
+    private void recordTimingsFromOutput(final String stdout) {
+        for (String line : stdout.split("\\R")) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length == 3 && TIMING_MARKER.equals(parts[0])) {
+                this.replicaSetInitTimings.put(parts[1], Duration.ofMillis(Long.parseLong(parts[2])));
+            }
+        }
+    }
+
     private void initReplicaSet(boolean reused) throws IOException, InterruptedException {
+        this.replicaSetInitTimings.clear();
+        if (this.replicaSetInitMode == ReplicaSetInitMode.SINGLE_EXEC) {
+            initReplicaSetInSingleExec();
+            return;
+        }
+        if (this.replicaSetInitMode == ReplicaSetInitMode.WIRE_PROTOCOL) {
+            initReplicaSetOverWireProtocol();
+            return;
+        }
+        long phaseStart = System.nanoTime();
         if (reused && isReplicationSetAlreadyInitialized()) {
+            this.replicaSetInitTimings.put("check", Duration.ofNanos(System.nanoTime() - phaseStart));
             return;
         }
         else {
-            final ExecResult execResultInitRs = execInContainer(buildMongoEvalCommand("rs.initiate();"));
-            checkMongoNodeExitCode(execResultInitRs);
+            // a restored data directory already holds the replica set configuration, it only needs to elect itself
+            if (!this.restoredFromCheckpoint) {
+                phaseStart = System.nanoTime();
+                final ExecResult execResultInitRs = execInContainer(buildMongoEvalCommand("rs.initiate();"));
+                checkMongoNodeExitCode(execResultInitRs);
+                this.replicaSetInitTimings.put("initiate", Duration.ofNanos(System.nanoTime() - phaseStart));
+            }
+
+            phaseStart = System.nanoTime();
             final ExecResult execResultWaitForMaster = execInContainer(buildMongoEvalCommand(buildMongoWaitCommand()));
 
             checkMongoNodeExitCodeAfterWaiting(execResultWaitForMaster);
+            this.replicaSetInitTimings.put("await", Duration.ofNanos(System.nanoTime() - phaseStart));
+        }
+    }
+
+    private void initReplicaSetInSingleExec() throws IOException, InterruptedException {
+        // the script checks the replica set state first, so it is safe to run on reused containers as well
+        final long execStart = System.nanoTime();
+        final ExecResult execResult = execInContainer(buildMongoSingleEvalCommand(buildMongoInitAndWaitScript()));
+        handleSingleExecResult(execResult, Duration.ofNanos(System.nanoTime() - execStart));
+    }
+
+    void handleSingleExecResult(final ExecResult execResult, final Duration execDuration) {
+        recordTimingsFromOutput(execResult.getStdout());
+        this.replicaSetInitTimings.put("exec", execDuration);
+        if (execResult.getStdout().contains(TIMING_MARKER + " timeout")) {
+            throw new ReplicaSetInitializationException(String.format(
+                    "A single node replica set was not initialized in a set timeout: %d ms",
+                    AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS
+            ));
+        }
+        checkMongoNodeExitCode(execResult);
+    }
+
+    private void initReplicaSetOverWireProtocol() throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        long phaseStart = start;
+        try (
+                MongoWireClient client = MongoWireClient.connect(
+                        getHost(),
+                        getMappedPort(MongoDBContainerDef.MONGODB_INTERNAL_PORT),
+                        Duration.ofMillis(AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS)
+                )
+        ) {
+            this.replicaSetInitTimings.put("connect", Duration.ofNanos(System.nanoTime() - phaseStart));
+
+            phaseStart = System.nanoTime();
+            final Map<String, Object> status = client.runCommand("admin", Collections.singletonMap("replSetGetStatus", 1));
+            this.replicaSetInitTimings.put("check", Duration.ofNanos(System.nanoTime() - phaseStart));
+            if (MongoWireClient.isOk(status) && Integer.valueOf(1).equals(status.get("myState"))) {
+                return;
+            }
+
+            phaseStart = System.nanoTime();
+            if (!MongoWireClient.isOk(status) && Integer.valueOf(MONGODB_NOT_YET_INITIALIZED_CODE).equals(status.get("code"))) {
+                final Map<String, Object> initiated = client.runCommand(
+                        "admin",
+                        Collections.singletonMap("replSetInitiate", Collections.emptyMap())
+                );
+                if (!MongoWireClient.isOk(initiated)) {
+                    throw new ReplicaSetInitializationException(
+                            String.format("An error occurred: %s", initiated.get("errmsg"))
+                    );
+                }
+            }
+            this.replicaSetInitTimings.put("initiate", Duration.ofNanos(System.nanoTime() - phaseStart));
+
+            phaseStart = System.nanoTime();
+            long delayMillis = 5;
+            while (!client.isWritablePrimary()) {
+                if (System.nanoTime() - start > Duration.ofMillis(AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS).toNanos()) {
+                    throw new ReplicaSetInitializationException(String.format(
+                            "A single node replica set was not initialized in a set timeout: %d ms",
+                            AWAIT_INIT_REPLICA_SET_TIMEOUT_MILLIS
+                    ));
+                }
+                Thread.sleep(delayMillis);
+                delayMillis = Math.min(delayMillis * 2, 500);
+            }
+            this.replicaSetInitTimings.put("await", Duration.ofNanos(System.nanoTime() - phaseStart));
         }
     }
 
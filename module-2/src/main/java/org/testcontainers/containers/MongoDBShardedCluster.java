@@ -0,0 +1,293 @@
+package org.testcontainers.containers;
+
+import org.testcontainers.lifecycle.Startable;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * A sharded MongoDB cluster made of a config server replica set, a number of single node shard replica sets and a
+ * {@code mongos} router, all running in their own containers on a shared {@link Network}.
+ * <p>
+ * The config server and the shards are started in parallel. Once all of them have elected a primary, {@code mongos}
+ * is started and every shard is registered over a single connection.
+ */
+public class MongoDBShardedCluster implements Startable {
+
+    private static final int MONGODB_INTERNAL_PORT = 27017;
+
+    private static final String CONFIG_SERVER_ALIAS = "configsvr";
+
+    private static final String CONFIG_SERVER_REPLICA_SET = "configsvr-rs";
+
+    private static final Duration AWAIT_PRIMARY_TIMEOUT = Duration.ofSeconds(60);
+
+    private static class MongodDef extends ContainerDef {
+
+        MongodDef(DockerImageName image, Network network, String alias, String... roleArgs) {
+            setImage(image);
+            setNetwork(network);
+            addNetworkAlias(alias);
+            addExposedTcpPort(MONGODB_INTERNAL_PORT);
+            List<String> command = new ArrayList<>();
+            Collections.addAll(command, roleArgs);
+            Collections.addAll(command, "--port", String.valueOf(MONGODB_INTERNAL_PORT), "--bind_ip_all");
+            setCommand(command.toArray(new String[0]));
+            setWaitStrategy(MongoDBContainer.waitForConnections());
+        }
+    }
+
+    private static class MongosDef extends ContainerDef {
+
+        MongosDef(DockerImageName image, Network network) {
+            setImage(image);
+            setNetwork(network);
+            addNetworkAlias("mongos");
+            addExposedTcpPort(MONGODB_INTERNAL_PORT);
+            setCommand(
+                    "mongos",
+                    "--configdb", CONFIG_SERVER_REPLICA_SET + "/" + CONFIG_SERVER_ALIAS + ":" + MONGODB_INTERNAL_PORT,
+                    "--port", String.valueOf(MONGODB_INTERNAL_PORT),
+                    "--bind_ip_all"
+            );
+            setWaitStrategy(MongoDBContainer.waitForConnections());
+        }
+    }
+
+    private final Network network;
+
+    private final boolean ownsNetwork;
+
+    private final GenericContainer<?> configServer;
+
+    private final Map<String, GenericContainer<?>> shards = new LinkedHashMap<>();
+
+    private final GenericContainer<?> mongos;
+
+    private final Map<String, Duration> startupTimings = new ConcurrentHashMap<>();
+
+    private MongoDBShardedCluster(Builder builder) {
+        this.ownsNetwork = builder.network == null;
+        this.network = this.ownsNetwork ? Network.newNetwork() : builder.network;
+        this.configServer = builder.containerFactory.apply(
+                new MongodDef(builder.image, this.network, CONFIG_SERVER_ALIAS, "--configsvr", "--replSet", CONFIG_SERVER_REPLICA_SET)
+        );
+        for (int i = 0; i < builder.shards; i++) {
+            String name = "shard" + i;
+            this.shards.put(
+                    name,
+                    builder.containerFactory.apply(
+                            new MongodDef(builder.image, this.network, name, "--shardsvr", "--replSet", name + "-rs")
+                    )
+            );
+        }
+        this.mongos = builder.containerFactory.apply(new MongosDef(builder.image, this.network));
+    }
+
+    public static Builder builder(DockerImageName image) {
+        return new Builder(image);
+    }
+
+    @Override
+    public void start() {
+        boolean started = false;
+        ExecutorService executor = Executors.newFixedThreadPool(this.shards.size() + 1);
+        try {
+            List<CompletableFuture<Void>> replicaSets = new ArrayList<>();
+            replicaSets.add(CompletableFuture.runAsync(
+                    () -> startReplicaSet(CONFIG_SERVER_ALIAS, CONFIG_SERVER_REPLICA_SET, true, this.configServer),
+                    executor
+            ));
+            this.shards.forEach((name, shard) -> replicaSets.add(CompletableFuture.runAsync(
+                    () -> startReplicaSet(name, name + "-rs", false, shard),
+                    executor
+            )));
+            try {
+                CompletableFuture.allOf(replicaSets.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+
+            long start = System.nanoTime();
+            this.mongos.start();
+            this.startupTimings.put("mongos", Duration.ofNanos(System.nanoTime() - start));
+
+            start = System.nanoTime();
+            addShards();
+            this.startupTimings.put("addShards", Duration.ofNanos(System.nanoTime() - start));
+            started = true;
+        } finally {
+            executor.shutdownNow();
+            // stops whatever did start, so a failed cluster does not leave containers running
+            if (!started) {
+                stop();
+            }
+        }
+    }
+
+    private void startReplicaSet(String name, String replicaSet, boolean configServer, GenericContainer<?> container) {
+        long start = System.nanoTime();
+        container.start();
+        Map<String, Object> member = new LinkedHashMap<>();
+        member.put("_id", 0);
+        member.put("host", name + ":" + MONGODB_INTERNAL_PORT);
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("_id", replicaSet);
+        if (configServer) {
+            config.put("configsvr", true);
+        }
+        config.put("members", Collections.singletonList(member));
+        try (MongoWireClient client = connect(container)) {
+            Map<String, Object> initiated = client.runCommand("admin", Collections.singletonMap("replSetInitiate", config));
+            if (!MongoWireClient.isOk(initiated)) {
+                throw new ShardedClusterInitializationException(
+                        String.format("Could not initiate replica set %s: %s", replicaSet, initiated.get("errmsg"))
+                );
+            }
+            long delayMillis = 5;
+            while (!client.isWritablePrimary()) {
+                if (System.nanoTime() - start > AWAIT_PRIMARY_TIMEOUT.toNanos()) {
+                    throw new ShardedClusterInitializationException(
+                            String.format("Replica set %s did not elect a primary in %s", replicaSet, AWAIT_PRIMARY_TIMEOUT)
+                    );
+                }
+                Thread.sleep(delayMillis);
+                delayMillis = Math.min(delayMillis * 2, 500);
+            }
+        } catch (IOException e) {
+            throw new ShardedClusterInitializationException("Could not initiate replica set " + replicaSet, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShardedClusterInitializationException("Interrupted while initiating replica set " + replicaSet, e);
+        }
+        this.startupTimings.put(name, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void addShards() {
+        try (MongoWireClient client = connect(this.mongos)) {
+            for (String name : this.shards.keySet()) {
+                String shard = name + "-rs/" + name + ":" + MONGODB_INTERNAL_PORT;
+                Map<String, Object> added = client.runCommand("admin", Collections.singletonMap("addShard", shard));
+                if (!MongoWireClient.isOk(added)) {
+                    throw new ShardedClusterInitializationException(
+                            String.format("Could not add shard %s: %s", shard, added.get("errmsg"))
+                    );
+                }
+            }
+        } catch (IOException e) {
+            throw new ShardedClusterInitializationException("Could not add shards", e);
+        }
+    }
+
+    private static MongoWireClient connect(GenericContainer<?> container) throws IOException {
+        return MongoWireClient.connect(
+                container.getHost(),
+                container.getMappedPort(MONGODB_INTERNAL_PORT),
+                AWAIT_PRIMARY_TIMEOUT
+        );
+    }
+
+    /**
+     * Gets a connection string pointing to the {@code mongos} router.
+     *
+     * @return a connection url for the cluster.
+     */
+    public String getConnectionString() {
+        if (!this.mongos.isRunning()) {
+            throw new IllegalStateException("MongoDBShardedCluster should be started first");
+        }
+        return String.format("mongodb://%s:%d", this.mongos.getHost(), this.mongos.getMappedPort(MONGODB_INTERNAL_PORT));
+    }
+
+    /**
+     * Gets how long each component took to become usable: {@code configsvr} and every {@code shardN} from container
+     * start until their replica set had a primary, {@code mongos} for the router container and {@code addShards} for
+     * registering the shards.
+     *
+     * @return component names mapped to their startup durations.
+     */
+    public Map<String, Duration> getStartupTimings() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(this.startupTimings));
+    }
+
+    public Network getNetwork() {
+        return this.network;
+    }
+
+    @Override
+    public void stop() {
+        this.mongos.stop();
+        this.shards.values().forEach(GenericContainer::stop);
+        this.configServer.stop();
+        if (this.ownsNetwork) {
+            this.network.close();
+        }
+    }
+
+    public static class Builder {
+
+        private final DockerImageName image;
+
+        private int shards = 2;
+
+        private Network network;
+
+        private Function<ContainerDef, GenericContainer<?>> containerFactory = GenericContainer::new;
+
+        private Builder(DockerImageName image) {
+            image.assertCompatibleWith(DockerImageName.parse("mongo"));
+            this.image = image;
+        }
+
+        public Builder withShards(int shards) {
+            if (shards < 1) {
+                throw new IllegalArgumentException("A sharded cluster needs at least one shard");
+            }
+            this.shards = shards;
+            return this;
+        }
+
+        /**
+         * Runs the cluster on the given network instead of a dedicated one, which is then left open on {@link #stop()}.
+         */
+        public Builder withNetwork(Network network) {
+            this.network = network;
+            return this;
+        }
+
+        /**
+         * Creates the containers from their definitions some other way, e.g. to test the cluster without Docker.
+         */
+        Builder withContainerFactory(Function<ContainerDef, GenericContainer<?>> containerFactory) {
+            this.containerFactory = containerFactory;
+            return this;
+        }
+
+        public MongoDBShardedCluster build() {
+            return new MongoDBShardedCluster(this);
+        }
+    }
+
+    public static class ShardedClusterInitializationException extends RuntimeException {
+
+        ShardedClusterInitializationException(final String errorMessage) {
+            super(errorMessage);
+        }
+
+        ShardedClusterInitializationException(final String errorMessage, final Throwable cause) {
+            super(errorMessage, cause);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.testcontainers.containers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal MongoDB client that sends commands as {@code OP_MSG} messages over a non-blocking {@link SocketChannel}.
+ * It only understands the BSON types needed to issue admin commands and read their replies, and requires
+ * MongoDB 3.6 or newer.
+ */
+final class MongoWireClient implements AutoCloseable {
+
+    private static final int OP_MSG = 2013;
+
+    private static final int HEADER_LENGTH = 16;
+
+    private static final byte SECTION_BODY = 0;
+
+    private final SocketChannel channel;
+
+    private final Selector selector;
+
+    private final long timeoutMillis;
+
+    private int nextRequestId = 1;
+
+    private MongoWireClient(SocketChannel channel, Selector selector, Duration timeout) {
+        this.channel = channel;
+        this.selector = selector;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    static MongoWireClient connect(String host, int port, Duration timeout) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        Selector selector = Selector.open();
+        try {
+            channel.configureBlocking(false);
+            channel.register(selector, 0);
+            MongoWireClient client = new MongoWireClient(channel, selector, timeout);
+            if (!channel.connect(new InetSocketAddress(host, port))) {
+                client.await(SelectionKey.OP_CONNECT);
+                channel.finishConnect();
+            }
+            return client;
+        } catch (IOException e) {
+            selector.close();
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a command against the given database and returns the reply document.
+     */
+    Map<String, Object> runCommand(String database, Map<String, Object> command) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>(command);
+        body.put("$db", database);
+        byte[] document = encodeDocument(body);
+
+        int requestId = this.nextRequestId++;
+        ByteBuffer request = ByteBuffer.allocate(HEADER_LENGTH + 4 + 1 + document.length).order(ByteOrder.LITTLE_ENDIAN);
+        request.putInt(request.capacity());
+        request.putInt(requestId);
+        request.putInt(0);
+        request.putInt(OP_MSG);
+        request.putInt(0);
+        request.put(SECTION_BODY);
+        request.put(document);
+        request.flip();
+        while (request.hasRemaining()) {
+            if (this.channel.write(request) == 0) {
+                await(SelectionKey.OP_WRITE);
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header);
+        header.flip();
+        int messageLength = header.getInt();
+        header.getInt();
+        int responseTo = header.getInt();
+        int opCode = header.getInt();
+        if (opCode != OP_MSG || responseTo != requestId) {
+            throw new IOException(String.format("Unexpected reply: opCode %d in response to %d", opCode, responseTo));
+        }
+
+        ByteBuffer reply = ByteBuffer.allocate(messageLength - HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(reply);
+        reply.flip();
+        reply.getInt();
+        if (reply.get() != SECTION_BODY) {
+            throw new IOException("Reply does not start with a body section");
+        }
+        return decodeDocument(reply);
+    }
+
+    /**
+     * Asks the server whether it is the writable primary, falling back to {@code isMaster} on servers
+     * that predate {@code hello}.
+     */
+    boolean isWritablePrimary() throws IOException {
+        Map<String, Object> hello = runCommand("admin", Collections.singletonMap("hello", 1));
+        if (!isOk(hello)) {
+            hello = runCommand("admin", Collections.singletonMap("isMaster", 1));
+        }
+        return Boolean.TRUE.equals(hello.get("isWritablePrimary")) || Boolean.TRUE.equals(hello.get("ismaster"));
+    }
+
+    static boolean isOk(Map<String, Object> reply) {
+        Object ok = reply.get("ok");
+        return ok instanceof Number && ((Number) ok).doubleValue() == 1.0;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer);
+            if (read < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+            if (read == 0) {
+                await(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private void await(int operation) throws IOException {
+        SelectionKey key = this.channel.keyFor(this.selector);
+        key.interestOps(operation);
+        try {
+            if (this.selector.select(this.timeoutMillis) == 0) {
+                throw new SocketTimeoutException("No response from the server within " + this.timeoutMillis + " ms");
+            }
+        } finally {
+            this.selector.selectedKeys().clear();
+            key.interestOps(0);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.selector.close();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    static byte[] encodeDocument(Map<String, ?> document) {
+        ByteArrayOutputStream elements = new ByteArrayOutputStream();
+        for (Map.Entry<String, ?> entry : document.entrySet()) {
+            writeElement(elements, entry.getKey(), entry.getValue());
+        }
+        ByteBuffer result = ByteBuffer.allocate(4 + elements.size() + 1).order(ByteOrder.LITTLE_ENDIAN);
+        result.putInt(result.capacity());
+        result.put(elements.toByteArray());
+        result.put((byte) 0);
+        return result.array();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeElement(ByteArrayOutputStream out, String name, Object value) {
+        if (value instanceof Double) {
+            out.write(0x01);
+            writeCString(out, name);
+            writeLong(out, Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof String) {
+            out.write(0x02);
+            writeCString(out, name);
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            writeInt(out, bytes.length + 1);
+            out.write(bytes, 0, bytes.length);
+            out.write(0);
+        } else if (value instanceof Map) {
+            out.write(0x03);
+            writeCString(out, name);
+            byte[] bytes = encodeDocument((Map<String, ?>) value);
+            out.write(bytes, 0, bytes.length);
+        } else if (value instanceof List) {
+            out.write(0x04);
+            writeCString(out, name);
+            Map<String, Object> array = new LinkedHashMap<>();
+            List<?> list = (List<?>) value;
+            for (int i = 0; i < list.size(); i++) {
+                array.put(Integer.toString(i), list.get(i));
+            }
+            byte[] bytes = encodeDocument(array);
+            out.write(bytes, 0, bytes.length);
+        } else if (value instanceof Boolean) {
+            out.write(0x08);
+            writeCString(out, name);
+            out.write((Boolean) value ? 1 : 0);
+        } else if (value == null) {
+            out.write(0x0A);
+            writeCString(out, name);
+        } else if (value instanceof Integer) {
+            out.write(0x10);
+            writeCString(out, name);
+            writeInt(out, (Integer) value);
+        } else if (value instanceof Long) {
+            out.write(0x12);
+            writeCString(out, name);
+            writeLong(out, (Long) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported BSON value for '" + name + "': " + value.getClass());
+        }
+    }
+
+    private static void writeCString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        out.write(0);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        for (int i = 0; i < 4; i++) {
+            out.write(value >>> (8 * i));
+        }
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (value >>> (8 * i)));
+        }
+    }
+
+    static Map<String, Object> decodeDocument(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int start = in.position();
+        int length = in.getInt();
+        int end = start + length - 1;
+        Map<String, Object> document = new LinkedHashMap<>();
+        while (in.position() < end) {
+            byte type = in.get();
+            String name = readCString(in);
+            document.put(name, readValue(in, type, name));
+        }
+        if (in.get() != 0) {
+            throw new IOException("Malformed BSON document");
+        }
+        return document;
+    }
+
+    private static Object readValue(ByteBuffer in, byte type, String name) throws IOException {
+        switch (type) {
+            case 0x01:
+                return in.getDouble();
+            case 0x02:
+            case 0x0D:
+            case 0x0E: {
+                byte[] bytes = new byte[in.getInt() - 1];
+                in.get(bytes);
+                in.get();
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            case 0x03:
+                return decodeDocument(in);
+            case 0x04:
+                return new ArrayList<>(decodeDocument(in).values());
+            case 0x05: {
+                byte[] bytes = new byte[in.getInt()];
+                in.get();
+                in.get(bytes);
+                return bytes;
+            }
+            case 0x07: {
+                StringBuilder objectId = new StringBuilder();
+                for (int i = 0; i < 12; i++) {
+                    objectId.append(String.format("%02x", in.get()));
+                }
+                return objectId.toString();
+            }
+            case 0x08:
+                return in.get() != 0;
+            case 0x06:
+            case 0x0A:
+            case (byte) 0xFF:
+            case 0x7F:
+                return null;
+            case 0x10:
+                return in.getInt();
+            case 0x09:
+            case 0x11:
+            case 0x12:
+                return in.getLong();
+            case 0x13: {
+                byte[] bytes = new byte[16];
+                in.get(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException(String.format("Unsupported BSON type 0x%02x for '%s'", type, name));
+        }
+    }
+
+    private static String readCString(ByteBuffer in) {
+        int start = in.position();
+        while (in.get() != 0) {
+            // scan to the terminator
+        }
+        byte[] bytes = new byte[in.position() - start - 1];
+        in.position(start);
+        in.get(bytes);
+        in.get();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,356 @@
+package org.testcontainers.containers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.lifecycle.Startable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Starts a set of containers concurrently, following a declared dependency graph.
+ * <p>
+ * Every image is pulled right away. A container is started as soon as its image is available and all the containers
+ * it depends on are ready, i.e. their wait strategies have passed, so independent containers start side by side.
+ * When a container fails to pull or start, nothing else is started, starts still in flight are interrupted, and every
+ * container is stopped again.
+ * <p>
+ * Tasks run on virtual threads when the JVM supports them, and on a cached thread pool otherwise.
+ */
+public class StartupOrchestrator implements Startable {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupOrchestrator.class);
+
+    /**
+     * How long interrupted starts get to finish before the containers are stopped.
+     */
+    private static final Duration CANCELLATION_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Map<String, GenericContainer<?>> containers;
+
+    private final Map<String, List<String>> dependencies;
+
+    private final Map<String, Timeline> timelines = new LinkedHashMap<>();
+
+    private StartupOrchestrator(Builder builder) {
+        this.containers = new LinkedHashMap<>(builder.containers);
+        this.dependencies = new LinkedHashMap<>(builder.dependencies);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void start() {
+        final long origin = System.nanoTime();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        final AtomicBoolean cancelling = new AtomicBoolean();
+        final Map<String, CompletableFuture<Void>> ready = new HashMap<>();
+        final ExecutorService executor = newExecutor();
+        this.timelines.clear();
+        this.containers.keySet().forEach(name -> this.timelines.put(name, new Timeline(name)));
+        try {
+            for (String name : startOrder()) {
+                final GenericContainer<?> container = this.containers.get(name);
+                final Timeline timeline = this.timelines.get(name);
+                final CompletableFuture<Void> pulled = CompletableFuture.runAsync(() -> {
+                    timeline.pullStarted = System.nanoTime() - origin;
+                    try {
+                        container.getDockerImageName();
+                    } catch (RuntimeException e) {
+                        timeline.status = Status.FAILED;
+                        throw e;
+                    }
+                    timeline.pullFinished = System.nanoTime() - origin;
+                }, executor);
+
+                List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                prerequisites.add(pulled);
+                this.dependencies.get(name).forEach(dependency -> prerequisites.add(ready.get(dependency)));
+
+                ready.put(name, CompletableFuture
+                        .allOf(prerequisites.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(() -> {
+                            if (failure.get() != null) {
+                                timeline.status = Status.CANCELLED;
+                                return;
+                            }
+                            timeline.startStarted = System.nanoTime() - origin;
+                            container.start();
+                            timeline.readyAt = System.nanoTime() - origin;
+                            timeline.status = Status.READY;
+                        }, executor)
+                        .whenComplete((ignored, e) -> {
+                            if (e != null) {
+                                if (timeline.status == Status.PENDING) {
+                                    // starts interrupted because of another failure are cancelled, not failed
+                                    timeline.status = cancelling.get() || timeline.startStarted < 0
+                                            ? Status.CANCELLED
+                                            : Status.FAILED;
+                                }
+                                failure.compareAndSet(null, unwrap(e));
+                                failed.complete(null);
+                            }
+                        }));
+            }
+
+            try {
+                CompletableFuture.anyOf(CompletableFuture.allOf(ready.values().toArray(new CompletableFuture[0])), failed)
+                        .join();
+            } catch (CompletionException e) {
+                // the failure is recorded by the future that failed
+            }
+            if (failure.get() != null) {
+                // fails fast: starts still in flight are interrupted rather than waited for
+                cancelling.set(true);
+                executor.shutdownNow();
+                awaitTermination(executor);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        if (failure.get() != null) {
+            this.timelines.values().stream()
+                    .filter(timeline -> timeline.status == Status.PENDING)
+                    .forEach(timeline -> timeline.status = Status.CANCELLED);
+        }
+        log.info("Container startup timeline:\n{}", report());
+        if (failure.get() != null) {
+            stop();
+            throw new ContainerLaunchException("Could not start all containers", failure.get());
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(CANCELLATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Interrupted container starts did not finish within {}", CANCELLATION_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> startOrder() {
+        final List<String> order = new ArrayList<>();
+        final Map<String, Integer> pending = new HashMap<>();
+        final Deque<String> free = new ArrayDeque<>();
+        this.dependencies.forEach((name, dependsOn) -> {
+            pending.put(name, dependsOn.size());
+            if (dependsOn.isEmpty()) {
+                free.add(name);
+            }
+        });
+        while (!free.isEmpty()) {
+            String name = free.poll();
+            order.add(name);
+            this.dependencies.forEach((dependent, dependsOn) -> {
+                if (dependsOn.contains(name) && pending.merge(dependent, -1, Integer::sum) == 0) {
+                    free.add(dependent);
+                }
+            });
+        }
+        if (order.size() != this.containers.size()) {
+            List<String> cyclic = new ArrayList<>(this.containers.keySet());
+            cyclic.removeAll(order);
+            throw new IllegalArgumentException("Containers have cyclic dependencies: " + cyclic);
+        }
+        return order;
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "testcontainers-startup");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Stops all containers, dependents before the containers they depend on.
+     */
+    @Override
+    public void stop() {
+        List<String> order = startOrder();
+        Collections.reverse(order);
+        order.forEach(name -> this.containers.get(name).stop());
+    }
+
+    public GenericContainer<?> getContainer(String name) {
+        return this.containers.get(name);
+    }
+
+    /**
+     * Gets what each container did during the last {@link #start()}, in declaration order.
+     *
+     * @return the per-container timelines.
+     */
+    public List<Timeline> getTimeline() {
+        return Collections.unmodifiableList(new ArrayList<>(this.timelines.values()));
+    }
+
+    /**
+     * Renders the timeline of the last {@link #start()} with one line per container.
+     *
+     * @return the timeline report.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        for (Timeline timeline : this.timelines.values()) {
+            report.append(timeline).append('\n');
+        }
+        return report.toString();
+    }
+
+    public enum Status {
+        PENDING,
+        READY,
+        FAILED,
+        CANCELLED,
+    }
+
+    /**
+     * When a container went through its startup phases, as offsets from the start of the orchestration.
+     * Phases that did not happen are reported as {@code null}.
+     */
+    public static final class Timeline {
+
+        private final String name;
+
+        private volatile long pullStarted = -1;
+
+        private volatile long pullFinished = -1;
+
+        private volatile long startStarted = -1;
+
+        private volatile long readyAt = -1;
+
+        private volatile Status status = Status.PENDING;
+
+        private Timeline(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Status getStatus() {
+            return this.status;
+        }
+
+        public Duration getPullStarted() {
+            return offset(this.pullStarted);
+        }
+
+        public Duration getPullFinished() {
+            return offset(this.pullFinished);
+        }
+
+        /**
+         * @return when the container was created and started, after its image and dependencies were ready.
+         */
+        public Duration getStartStarted() {
+            return offset(this.startStarted);
+        }
+
+        /**
+         * @return when the wait strategy of the container passed.
+         */
+        public Duration getReadyAt() {
+            return offset(this.readyAt);
+        }
+
+        private static Duration offset(long nanos) {
+            return nanos < 0 ? null : Duration.ofNanos(nanos);
+        }
+
+        private static String millis(long nanos) {
+            return nanos < 0 ? "-" : "+" + Duration.ofNanos(nanos).toMillis() + "ms";
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-20s %-9s pull %s..%s start %s..%s",
+                    this.name,
+                    this.status,
+                    millis(this.pullStarted),
+                    millis(this.pullFinished),
+                    millis(this.startStarted),
+                    millis(this.readyAt)
+            );
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<String, GenericContainer<?>> containers = new LinkedHashMap<>();
+
+        private final Map<String, List<String>> dependencies = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a container that is started once all containers named in <code>dependsOn</code> are ready.
+         */
+        public Builder add(String name, GenericContainer<?> container, String... dependsOn) {
+            if (this.containers.putIfAbsent(name, container) != null) {
+                throw new IllegalArgumentException("A container named '" + name + "' was already added");
+            }
+            this.dependencies.put(name, Arrays.asList(dependsOn));
+            return this;
+        }
+
+        /**
+         * Adds a container created from a definition, started once all containers named in <code>dependsOn</code>
+         * are ready.
+         */
+        public Builder add(String name, ContainerDef containerDef, String... dependsOn) {
+            return add(name, new GenericContainer<>(containerDef), dependsOn);
+        }
+
+        public StartupOrchestrator build() {
+            this.dependencies.forEach((name, dependsOn) -> {
+                for (String dependency : dependsOn) {
+                    if (!this.containers.containsKey(dependency)) {
+                        throw new IllegalArgumentException(
+                                String.format("'%s' depends on '%s', which was not added", name, dependency)
+                        );
+                    }
+                }
+            });
+            StartupOrchestrator orchestrator = new StartupOrchestrator(this);
+            // rejects cycles up front instead of on start
+            orchestrator.startOrder();
+            return orchestrator;
+        }
+    }
+}
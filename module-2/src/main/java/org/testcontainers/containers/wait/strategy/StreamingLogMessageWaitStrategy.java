@@ -0,0 +1,268 @@
+package org.testcontainers.containers.wait.strategy;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import org.testcontainers.containers.ContainerLaunchException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Waits until a log message appears, scanning the log stream as frames arrive instead of matching every frame
+ * against a regular expression.
+ * <p>
+ * Literals are matched byte by byte with an Aho-Corasick automaton, so a match completes the wait in the middle of
+ * the frame that carries it and no log text is buffered. A regular expression, if any, is only evaluated on complete
+ * lines, each buffered up to {@link #withMaxLineLength(int) a maximum length}, and only for lines no literal matched.
+ * <p>
+ * Every matching line counts once towards {@link #withTimes(int)}.
+ */
+public class StreamingLogMessageWaitStrategy extends AbstractWaitStrategy {
+
+    private static final int DEFAULT_MAX_LINE_LENGTH = 8 * 1024;
+
+    private final List<String> literals = new ArrayList<>();
+
+    private Pattern pattern;
+
+    private int times = 1;
+
+    private int maxLineLength = DEFAULT_MAX_LINE_LENGTH;
+
+    /**
+     * Matches lines that contain <code>literal</code>.
+     */
+    public StreamingLogMessageWaitStrategy withLiteral(String literal) {
+        if (literal.isEmpty()) {
+            throw new IllegalArgumentException("A literal to wait for must not be empty");
+        }
+        this.literals.add(literal);
+        return this;
+    }
+
+    /**
+     * Matches structured JSON log lines with the string field <code>name</code> set to <code>value</code>, as written
+     * without whitespace by e.g. MongoDB: <code>"name":"value"</code>.
+     */
+    public StreamingLogMessageWaitStrategy withJsonField(String name, String value) {
+        return withLiteral("\"" + name + "\":\"" + value + "\"");
+    }
+
+    /**
+     * Matches lines in which <code>regEx</code> is found, for messages no literal can describe.
+     */
+    public StreamingLogMessageWaitStrategy withRegEx(String regEx) {
+        this.pattern = Pattern.compile(regEx);
+        return this;
+    }
+
+    public StreamingLogMessageWaitStrategy withTimes(int times) {
+        this.times = times;
+        return this;
+    }
+
+    /**
+     * Limits how much of a line is kept for the regular expression. Longer lines are cut off.
+     */
+    public StreamingLogMessageWaitStrategy withMaxLineLength(int maxLineLength) {
+        this.maxLineLength = maxLineLength;
+        return this;
+    }
+
+    @Override
+    protected void waitUntilReady() {
+        if (this.literals.isEmpty() && this.pattern == null) {
+            throw new IllegalStateException("No log message to wait for was configured");
+        }
+        final CountDownLatch remaining = new CountDownLatch(this.times);
+        final LogScanner stdout = newScanner();
+        final LogScanner stderr = newScanner();
+
+        ResultCallback.Adapter<Frame> callback = new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+                LogScanner scanner = frame.getStreamType() == StreamType.STDERR ? stderr : stdout;
+                countDown(remaining, scanner.feed(frame.getPayload()));
+            }
+
+            @Override
+            public void onComplete() {
+                countDown(remaining, stdout.finish() + stderr.finish());
+                super.onComplete();
+            }
+        };
+
+        try {
+            waitStrategyTarget
+                    .getDockerClient()
+                    .logContainerCmd(waitStrategyTarget.getContainerId())
+                    .withFollowStream(true)
+                    .withSince(0)
+                    .withStdOut(true)
+                    .withStdErr(true)
+                    .exec(callback);
+
+            if (!remaining.await(startupTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ContainerLaunchException("Timed out waiting for log output matching " + describe());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerLaunchException("Interrupted while waiting for log output matching " + describe(), e);
+        } finally {
+            try {
+                callback.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void countDown(CountDownLatch latch, int matches) {
+        for (int i = 0; i < matches; i++) {
+            latch.countDown();
+        }
+    }
+
+    LogScanner newScanner() {
+        return new LogScanner(this.literals, this.pattern, this.maxLineLength);
+    }
+
+    private String describe() {
+        List<String> expected = new ArrayList<>();
+        this.literals.forEach(it -> expected.add("'" + it + "'"));
+        if (this.pattern != null) {
+            expected.add("/" + this.pattern.pattern() + "/");
+        }
+        return String.join(" or ", expected);
+    }
+
+    /**
+     * Counts matching lines in one output stream, keeping its state between frames.
+     */
+    static final class LogScanner {
+
+        private static final int ALPHABET = 256;
+
+        private final int[][] transitions;
+
+        private final boolean[] accepting;
+
+        private final Pattern pattern;
+
+        private final byte[] line;
+
+        private int lineLength;
+
+        private int state;
+
+        private boolean lineMatched;
+
+        LogScanner(List<String> literals, Pattern pattern, int maxLineLength) {
+            this.pattern = pattern;
+            this.line = pattern == null ? null : new byte[maxLineLength];
+
+            List<int[]> trie = new ArrayList<>();
+            List<Boolean> terminal = new ArrayList<>();
+            trie.add(newState());
+            terminal.add(false);
+            for (String literal : literals) {
+                int current = 0;
+                for (byte b : literal.getBytes(StandardCharsets.UTF_8)) {
+                    int c = b & 0xFF;
+                    if (trie.get(current)[c] < 0) {
+                        trie.get(current)[c] = trie.size();
+                        trie.add(newState());
+                        terminal.add(false);
+                    }
+                    current = trie.get(current)[c];
+                }
+                terminal.set(current, true);
+            }
+
+            // turns the trie into a DFA by resolving the failure links breadth first
+            this.transitions = trie.toArray(new int[0][]);
+            this.accepting = new boolean[this.transitions.length];
+            int[] failure = new int[this.transitions.length];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = this.transitions[0][c];
+                if (next < 0) {
+                    this.transitions[0][c] = 0;
+                } else {
+                    queue.add(next);
+                }
+            }
+            this.accepting[0] = terminal.get(0);
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+                this.accepting[current] = terminal.get(current) || this.accepting[failure[current]];
+                for (int c = 0; c < ALPHABET; c++) {
+                    int next = this.transitions[current][c];
+                    if (next < 0) {
+                        this.transitions[current][c] = this.transitions[failure[current]][c];
+                    } else {
+                        failure[next] = this.transitions[failure[current]][c];
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+
+        private static int[] newState() {
+            int[] state = new int[ALPHABET];
+            Arrays.fill(state, -1);
+            return state;
+        }
+
+        /**
+         * @return the number of lines that matched, completed by this chunk.
+         */
+        int feed(byte[] chunk) {
+            int matches = 0;
+            for (byte b : chunk) {
+                if (b == '\n') {
+                    matches += endLine();
+                    continue;
+                }
+                if (this.lineMatched) {
+                    continue;
+                }
+                this.state = this.transitions[this.state][b & 0xFF];
+                if (this.accepting[this.state]) {
+                    this.lineMatched = true;
+                    matches++;
+                } else if (this.line != null && this.lineLength < this.line.length) {
+                    this.line[this.lineLength++] = b;
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * Evaluates the last line if the stream ended without a line break.
+         *
+         * @return 1 if that line matched, 0 otherwise.
+         */
+        int finish() {
+            return this.lineLength > 0 ? endLine() : 0;
+        }
+
+        private int endLine() {
+            boolean matched = !this.lineMatched &&
+                    this.pattern != null &&
+                    this.pattern.matcher(new String(this.line, 0, this.lineLength, StandardCharsets.UTF_8)).find();
+            this.state = 0;
+            this.lineMatched = false;
+            this.lineLength = 0;
+            return matched ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.testcontainers.containers;
+
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.PortBinding;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContainerDefTest {
+
+    private static ContainerDef mongoLikeDef() {
+        ContainerDef def = new ContainerDef();
+        def.setImage("mongo:7.0.9");
+        def.addExposedTcpPorts(27017, 27018);
+        def.addPortBindings(PortBinding.parse("37017:27017"));
+        def.addEnvVar("MONGO_INITDB_DATABASE", "test");
+        def.addLabel("org.testcontainers.workshop", "module-2");
+        def.setCommand("--replSet", "docker-rs");
+        def.setNetworkMode("bridge");
+        return def;
+    }
+
+    /**
+     * A create command that only records what is set on it: every {@code withX} stores its argument, which
+     * {@code getX} returns.
+     */
+    private static CreateContainerCmd newCreateCommand() {
+        Map<String, Object> values = new HashMap<>();
+        return (CreateContainerCmd) Proxy.newProxyInstance(
+                ContainerDefTest.class.getClassLoader(),
+                new Class<?>[] { CreateContainerCmd.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("with") && args != null && args.length == 1) {
+                        values.put(name.substring("with".length()), args[0]);
+                        return proxy;
+                    }
+                    if (name.startsWith("get") && args == null) {
+                        Object value = values.get(name.substring("get".length()));
+                        if (value instanceof List && method.getReturnType().isArray()) {
+                            List<?> list = (List<?>) value;
+                            Object array = Array.newInstance(method.getReturnType().getComponentType(), list.size());
+                            for (int i = 0; i < list.size(); i++) {
+                                Array.set(array, i, list.get(i));
+                            }
+                            return array;
+                        }
+                        return value;
+                    }
+                    throw new UnsupportedOperationException("not recorded in unit tests: " + method);
+                }
+        );
+    }
+
+    @Test
+    void frozenDefinitionAppliesSameSettings() {
+        ContainerDef def = mongoLikeDef();
+        CreateContainerCmd expected = newCreateCommand();
+        def.applyTo(expected);
+
+        CreateContainerCmd actual = newCreateCommand();
+        def.freeze().applyTo(actual);
+
+        assertThat(actual.getExposedPorts()).containsExactlyInAnyOrder(expected.getExposedPorts());
+        assertThat(actual.getHostConfig().getPortBindings().getBindings())
+                .usingRecursiveComparison()
+                .isEqualTo(expected.getHostConfig().getPortBindings().getBindings());
+        assertThat(actual.getEnv()).containsExactly(expected.getEnv());
+        assertThat(actual.getCmd()).containsExactly("--replSet", "docker-rs");
+        assertThat(actual.getHostConfig().getNetworkMode()).isEqualTo("bridge");
+        assertThat(actual.getLabels()).isEqualTo(expected.getLabels());
+    }
+
+    @Test
+    void frozenDefinitionKeepsLabelsMutableForTheCommand() {
+        CreateContainerCmd command = newCreateCommand();
+        mongoLikeDef().freeze().applyTo(command);
+
+        command.getLabels().put("org.testcontainers.sessionId", "session");
+
+        assertThat(command.getLabels()).containsKeys("org.testcontainers.workshop", "org.testcontainers.sessionId");
+    }
+
+    @Test
+    void frozenDefinitionCannotBeModified() {
+        ContainerDef frozen = mongoLikeDef().freeze();
+
+        assertThatThrownBy(() -> frozen.addEnvVar("KEY", "value")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> frozen.addExposedPort(ExposedPort.tcp(8080)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> frozen.setCommand("mongod")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(frozen.freeze()).isSameAs(frozen);
+    }
+}
@@ -0,0 +1,119 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ContainerPoolTest {
+
+    private static final AtomicInteger STARTED = new AtomicInteger();
+
+    private static final AtomicInteger STOPPED = new AtomicInteger();
+
+    /**
+     * Pretends to start, so the pool bookkeeping can be tested without Docker.
+     */
+    static class FakeContainer extends GenericContainer<FakeContainer> {
+
+        FakeContainer() {
+            super(DockerImageName.parse("alpine:3.19"));
+        }
+
+        @Override
+        public void start() {
+            STARTED.incrementAndGet();
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.incrementAndGet();
+        }
+    }
+
+    @Test
+    void leasesWarmContainersAndReusesThemAfterReset() {
+        int startedBefore = STARTED.get();
+        AtomicInteger resets = new AtomicInteger();
+        try (ContainerPool<FakeContainer> pool = new ContainerPool<>(FakeContainer::new, 2, it -> resets.incrementAndGet())) {
+            await().until(() -> pool.getMetrics().getIdle() == 2);
+
+            FakeContainer first;
+            try (ContainerPool.Lease<FakeContainer> lease = pool.lease(Duration.ofSeconds(5))) {
+                first = lease.getContainer();
+            }
+            await().until(() -> resets.get() == 1 && pool.getMetrics().getIdle() == 2);
+
+            try (
+                    ContainerPool.Lease<FakeContainer> a = pool.lease(Duration.ofSeconds(5));
+                    ContainerPool.Lease<FakeContainer> b = pool.lease(Duration.ofSeconds(5))
+            ) {
+                assertThat(a.getContainer() == first || b.getContainer() == first).isTrue();
+            }
+
+            ContainerPool.Metrics metrics = pool.getMetrics();
+            assertThat(metrics.getHits()).isEqualTo(3);
+            assertThat(metrics.getMisses()).isZero();
+            assertThat(metrics.getInstances()).isEqualTo(2);
+            assertThat(STARTED.get() - startedBefore).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void replacesContainersThatFailToReset() {
+        int stoppedBefore = STOPPED.get();
+        try (
+                ContainerPool<FakeContainer> pool = new ContainerPool<>(FakeContainer::new, 1, it -> {
+                    throw new IllegalStateException("reset failed");
+                })
+        ) {
+            FakeContainer first;
+            try (ContainerPool.Lease<FakeContainer> lease = pool.lease(Duration.ofSeconds(5))) {
+                first = lease.getContainer();
+            }
+            await().until(() -> pool.getMetrics().getResetFailures() == 1 && pool.getMetrics().getIdle() == 1);
+
+            try (ContainerPool.Lease<FakeContainer> lease = pool.lease(Duration.ofSeconds(5))) {
+                assertThat(lease.getContainer()).isNotSameAs(first);
+            }
+            assertThat(STOPPED.get() - stoppedBefore).isGreaterThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void failsWaitingLeasesWithTheCauseWhenContainersDoNotStart() {
+        try (
+                ContainerPool<FakeContainer> pool = new ContainerPool<>(() -> new FakeContainer() {
+                    @Override
+                    public void start() {
+                        throw new ContainerLaunchException("image not found");
+                    }
+                }, 1, it -> {})
+        ) {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> pool.lease(Duration.ofMinutes(1)))
+                    .isInstanceOf(ContainerLaunchException.class)
+                    .hasMessageContaining("Could not start a pooled container")
+                    .hasRootCauseMessage("image not found");
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(30));
+            assertThat(pool.getMetrics().getStartFailures()).isGreaterThanOrEqualTo(3);
+            assertThat(pool.getMetrics().getInstances()).isZero();
+        }
+    }
+
+    @Test
+    void sharesPoolsBetweenIdenticalDefinitions() {
+        try (ContainerPool<FakeContainer> pool = ContainerPool.shared(FakeContainer::new, 1, it -> {})) {
+            assertThat(ContainerPool.shared(FakeContainer::new, 1, it -> {})).isSameAs(pool);
+            assertThat(ContainerPool.shared(() -> new FakeContainer().withEnv("KEY", "value"), 1, it -> {}))
+                    .isNotSameAs(pool)
+                    .satisfies(ContainerPool::close);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoDBCheckpointStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static void save(MongoDBCheckpointStore store, String key, String content) throws IOException {
+        store.save(key, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void touch(String key, Instant time) throws IOException {
+        Files.setLastModifiedTime(this.directory.resolve(key + ".tar"), FileTime.from(time));
+    }
+
+    @Test
+    void derivesKeysFromImageAndSeedHash() {
+        DockerImageName image = DockerImageName.parse("mongo:7.0.9");
+
+        String key = MongoDBCheckpointStore.key(image, "seed-1");
+
+        assertThat(key).matches("[0-9a-f]{64}");
+        assertThat(MongoDBCheckpointStore.key(DockerImageName.parse("mongo:7.0.9"), "seed-1")).isEqualTo(key);
+        assertThat(MongoDBCheckpointStore.key(image, "seed-2")).isNotEqualTo(key);
+        assertThat(MongoDBCheckpointStore.key(DockerImageName.parse("mongo:6.0.15"), "seed-1")).isNotEqualTo(key);
+    }
+
+    @Test
+    void roundTripsCheckpoints() throws IOException {
+        MongoDBCheckpointStore store = new MongoDBCheckpointStore(this.directory, 2);
+        assertThat(store.find("data")).isEmpty();
+
+        save(store, "data", "db/collection-0.wt");
+        save(store, "data", "db/collection-1.wt");
+
+        assertThat(store.find("data"))
+                .hasValueSatisfying(it -> assertThat(it).hasContent("db/collection-1.wt"));
+        try (Stream<Path> files = Files.list(this.directory)) {
+            assertThat(files).containsExactly(this.directory.resolve("data.tar"));
+        }
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedCheckpoints() throws IOException {
+        MongoDBCheckpointStore store = new MongoDBCheckpointStore(this.directory, 2);
+        Instant now = Instant.now();
+        save(store, "oldest", "1");
+        save(store, "older", "2");
+        touch("oldest", now.minus(2, ChronoUnit.HOURS));
+        touch("older", now.minus(1, ChronoUnit.HOURS));
+
+        save(store, "newest", "3");
+
+        assertThat(store.find("oldest")).isEmpty();
+        assertThat(store.find("older")).isPresent();
+        assertThat(store.find("newest")).isPresent();
+    }
+
+    @Test
+    void findingACheckpointKeepsItFromEviction() throws IOException {
+        MongoDBCheckpointStore store = new MongoDBCheckpointStore(this.directory, 2);
+        Instant now = Instant.now();
+        save(store, "oldest", "1");
+        save(store, "older", "2");
+        touch("oldest", now.minus(2, ChronoUnit.HOURS));
+        touch("older", now.minus(1, ChronoUnit.HOURS));
+
+        assertThat(store.find("oldest")).isPresent();
+        save(store, "newest", "3");
+
+        assertThat(store.find("oldest")).isPresent();
+        assertThat(store.find("older")).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MongoDBContainer.ReplicaSetInitializationException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class MongoDBContainerReplicaSetInitTest {
+
+    private static Container.ExecResult execResult(int exitCode, String stdout) {
+        return new Container.ExecResult(exitCode, stdout, "");
+    }
+
+    @Test
+    void singleExecRunsTheScriptOnceWithTheAvailableShell() {
+        String script = MongoDBContainer.buildMongoInitAndWaitScript();
+
+        String[] command = MongoDBContainer.buildMongoSingleEvalCommand(script);
+
+        assertThat(command).hasSize(5);
+        assertThat(command[0]).isEqualTo("sh");
+        assertThat(command[2])
+                .contains("exec mongosh", "exec mongo ")
+                .doesNotContain("||")
+                .doesNotContain(script);
+        assertThat(command[4]).isEqualTo(script);
+    }
+
+    @Test
+    void singleExecRecordsThePhases() {
+        MongoDBContainer mongo = new MongoDBContainer("mongo:7.0.9");
+
+        mongo.handleSingleExecResult(
+                execResult(0, "tc-timing check 3\ntc-timing initiate 120\ntc-timing await 850\n"),
+                Duration.ofSeconds(1)
+        );
+
+        assertThat(mongo.getReplicaSetInitTimings()).containsExactly(
+                entry("check", Duration.ofMillis(3)),
+                entry("initiate", Duration.ofMillis(120)),
+                entry("await", Duration.ofMillis(850)),
+                entry("exec", Duration.ofSeconds(1))
+        );
+    }
+
+    @Test
+    void singleExecReportsTheTimeout() {
+        MongoDBContainer mongo = new MongoDBContainer("mongo:7.0.9");
+
+        assertThatThrownBy(() -> mongo.handleSingleExecResult(
+                execResult(1, "tc-timing check 3\ntc-timing initiate 120\ntc-timing timeout\n"),
+                Duration.ofSeconds(30)
+        ))
+                .isInstanceOf(ReplicaSetInitializationException.class)
+                .hasMessageContaining("was not initialized in a set timeout");
+        assertThat(mongo.getReplicaSetInitTimings()).containsKeys("check", "initiate", "exec");
+    }
+
+    @Test
+    void singleExecReportsFailedInitiate() {
+        MongoDBContainer mongo = new MongoDBContainer("mongo:7.0.9");
+
+        assertThatThrownBy(() -> mongo.handleSingleExecResult(
+                execResult(2, "tc-timing check 3\nNo host described in new configuration\n"),
+                Duration.ofMillis(50)
+        ))
+                .isInstanceOf(ReplicaSetInitializationException.class)
+                .hasMessageContaining("No host described in new configuration");
+    }
+}
@@ -0,0 +1,41 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class MongoDBShardedClusterIntegrationTest {
+
+    @Test
+    void registersEveryShardWithMongos() throws Exception {
+        try (
+                MongoDBShardedCluster cluster = MongoDBShardedCluster.builder(DockerImageName.parse("mongo:7.0.9"))
+                        .withShards(2)
+                        .build()
+        ) {
+            cluster.start();
+
+            URI uri = URI.create(cluster.getConnectionString());
+            try (MongoWireClient client = MongoWireClient.connect(uri.getHost(), uri.getPort(), Duration.ofSeconds(30))) {
+                Map<String, Object> reply = client.runCommand("admin", Collections.singletonMap("listShards", 1));
+                assertThat(MongoWireClient.isOk(reply)).isTrue();
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> shards = (List<Map<String, Object>>) reply.get("shards");
+                assertThat(shards.stream().map(it -> it.get("_id")).collect(Collectors.toList()))
+                        .containsExactlyInAnyOrder("shard0-rs", "shard1-rs");
+            }
+            assertThat(cluster.getStartupTimings())
+                    .containsOnlyKeys("configsvr", "shard0", "shard1", "mongos", "addShards");
+        }
+    }
+}
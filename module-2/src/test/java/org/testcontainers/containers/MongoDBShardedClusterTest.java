@@ -0,0 +1,105 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MongoDBShardedClusterTest {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("mongo:7.0.9");
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    /**
+     * Pretends to start, failing for the config server, so the teardown can be tested without Docker.
+     */
+    class FakeContainer extends GenericContainer<FakeContainer> {
+
+        private final String name;
+
+        FakeContainer(ContainerDef def) {
+            super(def);
+            this.name = Arrays.asList(def.getCommand()).contains("mongos")
+                    ? "mongos"
+                    : def.getNetworkAliases().iterator().next();
+        }
+
+        @Override
+        public void start() {
+            events.add("started " + this.name);
+            if ("configsvr".equals(this.name)) {
+                throw new ContainerLaunchException("configsvr failed to start");
+            }
+        }
+
+        @Override
+        public String getHost() {
+            return "localhost";
+        }
+
+        @Override
+        public Integer getMappedPort(int originalPort) {
+            throw new IllegalStateException(this.name + " has no mapped port");
+        }
+
+        @Override
+        public void stop() {
+            events.add("stopped " + this.name);
+        }
+    }
+
+    /**
+     * A network that only records whether it was closed.
+     */
+    static class FakeNetwork implements Network {
+
+        private boolean closed;
+
+        @Override
+        public String getId() {
+            return "fake-network";
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        @Override
+        public Statement apply(Statement base, Description description) {
+            return base;
+        }
+    }
+
+    @Test
+    void stopsEveryContainerWhenAReplicaSetFails() {
+        FakeNetwork network = new FakeNetwork();
+        MongoDBShardedCluster cluster = MongoDBShardedCluster.builder(IMAGE)
+                .withShards(2)
+                .withNetwork(network)
+                .withContainerFactory(FakeContainer::new)
+                .build();
+
+        assertThatThrownBy(cluster::start).isInstanceOf(RuntimeException.class);
+
+        assertThat(this.events)
+                .contains("started configsvr", "started shard0", "started shard1")
+                .doesNotContain("started mongos")
+                .contains("stopped configsvr", "stopped shard0", "stopped shard1", "stopped mongos");
+        assertThat(network.closed).as("a network that was provided is left open").isFalse();
+    }
+
+    @Test
+    void rejectsClustersWithoutShards() {
+        assertThatThrownBy(() -> MongoDBShardedCluster.builder(IMAGE).withShards(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
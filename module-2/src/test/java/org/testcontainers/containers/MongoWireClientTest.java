@@ -0,0 +1,89 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoWireClientTest {
+
+    @Test
+    void encodesAndDecodesDocuments() throws Exception {
+        Map<String, Object> member = new LinkedHashMap<>();
+        member.put("_id", 0);
+        member.put("host", "mongo:27017");
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("replSetInitiate", Collections.singletonMap("members", Arrays.asList(member)));
+        document.put("ok", 1.0);
+        document.put("isWritablePrimary", true);
+        document.put("localTime", 1718000000000L);
+        document.put("errmsg", null);
+
+        Map<String, Object> decoded = MongoWireClient.decodeDocument(
+                ByteBuffer.wrap(MongoWireClient.encodeDocument(document))
+        );
+
+        assertThat(decoded).isEqualTo(document);
+    }
+
+    @Test
+    void sendsCommandAsOpMsgAndReadsReply() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+
+            CompletableFuture<Map<String, Object>> received = CompletableFuture.supplyAsync(() -> {
+                try (SocketChannel socket = server.accept()) {
+                    ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+                    while (header.hasRemaining()) {
+                        socket.read(header);
+                    }
+                    header.flip();
+                    int length = header.getInt();
+                    int requestId = header.getInt();
+                    ByteBuffer body = ByteBuffer.allocate(length - 16).order(ByteOrder.LITTLE_ENDIAN);
+                    while (body.hasRemaining()) {
+                        socket.read(body);
+                    }
+                    body.flip();
+                    body.getInt();
+                    body.get();
+                    Map<String, Object> command = MongoWireClient.decodeDocument(body);
+
+                    byte[] reply = MongoWireClient.encodeDocument(Collections.singletonMap("ok", 1.0));
+                    ByteBuffer response = ByteBuffer.allocate(16 + 5 + reply.length).order(ByteOrder.LITTLE_ENDIAN);
+                    response.putInt(response.capacity()).putInt(7).putInt(requestId).putInt(2013);
+                    response.putInt(0).put((byte) 0).put(reply);
+                    response.flip();
+                    while (response.hasRemaining()) {
+                        socket.write(response);
+                    }
+                    return command;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            try (MongoWireClient client = MongoWireClient.connect("127.0.0.1", port, Duration.ofSeconds(5))) {
+                Map<String, Object> reply = client.runCommand("admin", Collections.singletonMap("hello", 1));
+                assertThat(reply).containsEntry("ok", 1.0);
+            }
+
+            assertThat(received.get(5, TimeUnit.SECONDS))
+                    .containsEntry("hello", 1)
+                    .containsEntry("$db", "admin");
+        }
+    }
+}
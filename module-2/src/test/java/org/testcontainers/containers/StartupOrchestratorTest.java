@@ -0,0 +1,170 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StartupOrchestratorTest {
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    /**
+     * Pretends to pull and start, so the orchestration can be tested without Docker.
+     */
+    class FakeContainer extends GenericContainer<FakeContainer> {
+
+        private final String name;
+
+        private final Runnable onStart;
+
+        FakeContainer(String name) {
+            this(name, () -> {});
+        }
+
+        FakeContainer(String name, Runnable onStart) {
+            super(DockerImageName.parse("alpine:3.19"));
+            this.name = name;
+            this.onStart = onStart;
+        }
+
+        @Override
+        public String getDockerImageName() {
+            return "alpine:3.19";
+        }
+
+        @Override
+        public void start() {
+            this.onStart.run();
+            events.add("started " + this.name);
+        }
+
+        @Override
+        public void stop() {
+            events.add("stopped " + this.name);
+        }
+    }
+
+    @Test
+    void startsIndependentContainersConcurrentlyAndDependentsAfterwards() {
+        CountDownLatch bothStarting = new CountDownLatch(2);
+        Runnable awaitOther = () -> {
+            bothStarting.countDown();
+            try {
+                assertThat(bothStarting.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        StartupOrchestrator orchestrator = StartupOrchestrator.builder()
+                .add("app", new FakeContainer("app"), "mongo", "postgres")
+                .add("mongo", new FakeContainer("mongo", awaitOther))
+                .add("postgres", new FakeContainer("postgres", awaitOther))
+                .build();
+
+        orchestrator.start();
+
+        assertThat(events).hasSize(3).endsWith("started app");
+        assertThat(orchestrator.getTimeline())
+                .extracting(StartupOrchestrator.Timeline::getStatus)
+                .containsOnly(StartupOrchestrator.Status.READY);
+        StartupOrchestrator.Timeline app = orchestrator.getTimeline().get(0);
+        assertThat(app.getName()).isEqualTo("app");
+        for (StartupOrchestrator.Timeline dependency : orchestrator.getTimeline().subList(1, 3)) {
+            assertThat(app.getStartStarted()).isGreaterThanOrEqualTo(dependency.getReadyAt());
+        }
+    }
+
+    @Test
+    void cancelsDependentsAndStopsEverythingWhenAContainerFails() {
+        StartupOrchestrator orchestrator = StartupOrchestrator.builder()
+                .add("mongo", new FakeContainer("mongo", () -> {
+                    throw new IllegalStateException("boom");
+                }))
+                .add("app", new FakeContainer("app"), "mongo")
+                .build();
+
+        assertThatThrownBy(orchestrator::start)
+                .isInstanceOf(ContainerLaunchException.class)
+                .hasRootCauseMessage("boom");
+
+        assertThat(events).containsExactly("stopped app", "stopped mongo");
+        assertThat(orchestrator.getTimeline())
+                .extracting(StartupOrchestrator.Timeline::getStatus)
+                .containsExactly(StartupOrchestrator.Status.FAILED, StartupOrchestrator.Status.CANCELLED);
+    }
+
+    @Test
+    void interruptsStartsInFlightWhenAContainerFails() {
+        CountDownLatch slowStarting = new CountDownLatch(1);
+        StartupOrchestrator orchestrator = StartupOrchestrator.builder()
+                .add("slow", new FakeContainer("slow", () -> {
+                    slowStarting.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("interrupted", e);
+                    }
+                }))
+                .add("broken", new FakeContainer("broken", () -> {
+                    try {
+                        assertThat(slowStarting.await(5, TimeUnit.SECONDS)).isTrue();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    throw new IllegalStateException("boom");
+                }))
+                .build();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(orchestrator::start).hasRootCauseMessage("boom");
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(30);
+        assertThat(events).containsExactlyInAnyOrder("stopped slow", "stopped broken");
+        assertThat(orchestrator.getTimeline())
+                .extracting(StartupOrchestrator.Timeline::getStatus)
+                .containsExactly(StartupOrchestrator.Status.CANCELLED, StartupOrchestrator.Status.FAILED);
+    }
+
+    @Test
+    void reportsFailedPullsAsFailed() {
+        StartupOrchestrator orchestrator = StartupOrchestrator.builder()
+                .add("mongo", new FakeContainer("mongo") {
+                    @Override
+                    public String getDockerImageName() {
+                        throw new IllegalStateException("pull access denied");
+                    }
+                })
+                .add("app", new FakeContainer("app"), "mongo")
+                .build();
+
+        assertThatThrownBy(orchestrator::start).hasRootCauseMessage("pull access denied");
+
+        assertThat(orchestrator.getTimeline())
+                .extracting(StartupOrchestrator.Timeline::getStatus)
+                .containsExactly(StartupOrchestrator.Status.FAILED, StartupOrchestrator.Status.CANCELLED);
+    }
+
+    @Test
+    void rejectsUnknownAndCyclicDependencies() {
+        assertThatThrownBy(() -> StartupOrchestrator.builder().add("app", new FakeContainer("app"), "db").build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'db'");
+
+        assertThatThrownBy(() -> {
+                    StartupOrchestrator.builder()
+                            .add("a", new FakeContainer("a"), "b")
+                            .add("b", new FakeContainer("b"), "a")
+                            .build();
+                })
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cyclic");
+    }
+}
@@ -0,0 +1,81 @@
+package org.testcontainers.containers.wait.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingLogMessageWaitStrategyTest {
+
+    private static final String MONGO_READY_LINE =
+            "{\"t\":{\"$date\":\"2024-05-02T10:00:00.000+00:00\"},\"s\":\"I\",\"c\":\"NETWORK\",\"id\":23016," +
+            "\"ctx\":\"listener\",\"msg\":\"Waiting for connections\",\"attr\":{\"port\":27017,\"ssl\":\"off\"}}\n";
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void matchesLiteralSplitAcrossFramesBeforeTheLineEnds() {
+        StreamingLogMessageWaitStrategy.LogScanner scanner = new StreamingLogMessageWaitStrategy()
+                .withJsonField("msg", "Waiting for connections")
+                .newScanner();
+
+        assertThat(scanner.feed(bytes("{\"id\":22943,\"msg\":\"Connection accepted\"}\n{\"msg\":\"Waiting f"))).isZero();
+        assertThat(scanner.feed(bytes("or connections\",\"attr\":{"))).isEqualTo(1);
+        assertThat(scanner.feed(bytes("\"port\":27017}}\n"))).isZero();
+    }
+
+    @Test
+    void countsEachLineOnceEvenIfSeveralLiteralsMatch() {
+        StreamingLogMessageWaitStrategy.LogScanner scanner = new StreamingLogMessageWaitStrategy()
+                .withJsonField("msg", "Waiting for connections")
+                .withLiteral("\"id\":23016,")
+                .newScanner();
+
+        assertThat(scanner.feed(bytes(MONGO_READY_LINE + MONGO_READY_LINE))).isEqualTo(2);
+    }
+
+    @Test
+    void findsOverlappingLiterals() {
+        StreamingLogMessageWaitStrategy.LogScanner scanner = new StreamingLogMessageWaitStrategy()
+                .withLiteral("abcd")
+                .withLiteral("bc")
+                .newScanner();
+
+        assertThat(scanner.feed(bytes("xabx\n"))).isZero();
+        assertThat(scanner.feed(bytes("xabcx\n"))).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToRegExOnCompleteLines() {
+        StreamingLogMessageWaitStrategy.LogScanner scanner = new StreamingLogMessageWaitStrategy()
+                .withRegEx("(?i)waiting for connections")
+                .newScanner();
+
+        assertThat(scanner.feed(bytes("2019-01-01 [initandlisten] WAITING for conn"))).isZero();
+        assertThat(scanner.feed(bytes("ections on port 27017\nnext"))).isEqualTo(1);
+        assertThat(scanner.finish()).isZero();
+    }
+
+    @Test
+    void evaluatesTheLastLineWhenTheStreamEnds() {
+        StreamingLogMessageWaitStrategy.LogScanner scanner = new StreamingLogMessageWaitStrategy()
+                .withRegEx("ready$")
+                .newScanner();
+
+        assertThat(scanner.feed(bytes("server is ready"))).isZero();
+        assertThat(scanner.finish()).isEqualTo(1);
+    }
+
+    @Test
+    void cutsOffLinesLongerThanTheBuffer() {
+        StreamingLogMessageWaitStrategy.LogScanner scanner = new StreamingLogMessageWaitStrategy()
+                .withRegEx("ready")
+                .withMaxLineLength(8)
+                .newScanner();
+
+        assertThat(scanner.feed(bytes("0123456789 ready\nready\n"))).isEqualTo(1);
+    }
+}
@@ -0,0 +1,163 @@
+package org.testcontainers.containers;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategyTarget;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A single node KRaft {@link KafkaContainer} tuned to start fast and to be thrown away after the tests.
+ * <p>
+ * Logs are kept on a tmpfs, so nothing is ever fsynced, including the metadata log the controller syncs on every
+ * write. Segments and indexes are small, so creating a partition preallocates little, and the broker JVM is set up
+ * for startup rather than throughput. Use a plain {@link KafkaContainer} to measure throughput.
+ * <p>
+ * Topics declared with {@link #withTopic(String, int)} are created with a single batched admin request as part of
+ * waiting for the container, so they exist as soon as {@link #start()} returns.
+ */
+public class FastKafkaContainer extends KafkaContainer {
+
+    private static final Logger log = LoggerFactory.getLogger(FastKafkaContainer.class);
+
+    private static final String DATA_DIRECTORY = "/var/lib/kafka/data";
+
+    private final List<NewTopic> topics = new ArrayList<>();
+
+    private Duration topicCreationTime = Duration.ZERO;
+
+    public FastKafkaContainer(final String dockerImageName) {
+        this(DockerImageName.parse(dockerImageName));
+    }
+
+    public FastKafkaContainer(final DockerImageName dockerImageName) {
+        super(dockerImageName);
+        withKraft();
+        withTmpFs(Map.of(DATA_DIRECTORY, "rw,mode=1777"));
+        tune(getContainerDef());
+    }
+
+    /**
+     * Adds to what {@link KafkaContainer} configures, which already sets the internal topics to one partition and
+     * replica, never flushes explicitly and does not delay the first rebalance.
+     */
+    private static void tune(ContainerDef containerDef) {
+        containerDef.addEnvVar("KAFKA_LOG_DIRS", DATA_DIRECTORY);
+        containerDef.addEnvVar("KAFKA_LOG_SEGMENT_BYTES", String.valueOf(1024 * 1024));
+        containerDef.addEnvVar("KAFKA_LOG_INDEX_SIZE_MAX_BYTES", String.valueOf(64 * 1024));
+        containerDef.addEnvVar("KAFKA_DEFAULT_REPLICATION_FACTOR", "1");
+        containerDef.addEnvVar("KAFKA_MIN_INSYNC_REPLICAS", "1");
+        containerDef.addEnvVar("KAFKA_TRANSACTION_STATE_LOG_NUM_PARTITIONS", "1");
+        containerDef.addEnvVar("KAFKA_HEAP_OPTS", "-Xms256m -Xmx512m");
+        // C1 only and a single threaded collector, the broker lives for seconds and handles little load
+        containerDef.addEnvVar("KAFKA_JVM_PERFORMANCE_OPTS", "-XX:+UseSerialGC -XX:TieredStopAtLevel=1 -Xshare:auto");
+    }
+
+    /**
+     * Creates <code>name</code> with a replication factor of 1 while the container starts.
+     *
+     * @param name the name of the topic.
+     * @param partitions how many partitions the topic has.
+     * @return this container.
+     */
+    public FastKafkaContainer withTopic(final String name, final int partitions) {
+        this.topics.add(new NewTopic(name, partitions, (short) 1));
+        return this;
+    }
+
+    /**
+     * Creates every one of <code>names</code> with a single partition while the container starts.
+     *
+     * @param names the names of the topics.
+     * @return this container.
+     */
+    public FastKafkaContainer withTopics(final String... names) {
+        for (String name : names) {
+            withTopic(name, 1);
+        }
+        return this;
+    }
+
+    /**
+     * How long the declared topics took to be created on the last start, part of the time {@link #start()} takes.
+     *
+     * @return the duration of the batched admin request.
+     */
+    public Duration getTopicCreationTime() {
+        return this.topicCreationTime;
+    }
+
+    /**
+     * Waits as the {@link KafkaContainer} would, and then for the declared topics to be created.
+     */
+    @Override
+    protected WaitStrategy getWaitStrategy() {
+        return new CreateTopicsWaitStrategy(super.getWaitStrategy());
+    }
+
+    private void createTopics() {
+        if (this.topics.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, getBootstrapServers()))) {
+            admin.createTopics(this.topics).values().forEach((name, created) -> {
+                try {
+                    created.get(30, TimeUnit.SECONDS);
+                }
+                catch (ExecutionException ex) {
+                    // a reused container already has them
+                    if (!(ex.getCause() instanceof TopicExistsException)) {
+                        throw new ContainerLaunchException("Could not create topic " + name, ex.getCause());
+                    }
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new ContainerLaunchException("Interrupted while creating topic " + name, ex);
+                }
+                catch (TimeoutException ex) {
+                    throw new ContainerLaunchException("Timed out creating topic " + name, ex);
+                }
+            });
+        }
+        this.topicCreationTime = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Created {} topics in {} ms", this.topics.size(), this.topicCreationTime.toMillis());
+    }
+
+    private class CreateTopicsWaitStrategy implements WaitStrategy {
+
+        private final WaitStrategy delegate;
+
+        CreateTopicsWaitStrategy(WaitStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void waitUntilReady(WaitStrategyTarget waitStrategyTarget) {
+            if (this.delegate != null) {
+                this.delegate.waitUntilReady(waitStrategyTarget);
+            }
+            createTopics();
+        }
+
+        @Override
+        public WaitStrategy withStartupTimeout(Duration startupTimeout) {
+            if (this.delegate != null) {
+                this.delegate.withStartupTimeout(startupTimeout);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package workshop;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.FastKafkaContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reports how long it takes until Kafka is ready and the topics of a test exist: for the default
+ * {@link KafkaContainer} with ZooKeeper and with KRaft, creating one topic after the other as tests usually do, and
+ * for the {@link FastKafkaContainer} creating them in one request.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FastKafkaContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FastKafkaContainerTest.class);
+
+    private static final DockerImageName KAFKA_IMAGE = DockerImageName.parse("confluentinc/cp-kafka:7.6.1");
+
+    private static final String[] TOPICS = { "orders", "payments", "shipments", "invoices", "notifications" };
+
+    private static Duration startToReady(KafkaContainer kafka, Consumer<KafkaContainer> createTopics) {
+        long start = System.nanoTime();
+        try (kafka) {
+            kafka.start();
+            createTopics.accept(kafka);
+            Duration readyIn = Duration.ofNanos(System.nanoTime() - start);
+            assertThat(listTopics(kafka)).contains(TOPICS);
+            return readyIn;
+        }
+    }
+
+    private static void createTopicsOneByOne(KafkaContainer kafka) {
+        for (String topic : TOPICS) {
+            try {
+                assertThat(kafka.execInContainer("kafka-topics", "--bootstrap-server", "localhost:9092", "--create",
+                        "--topic", topic, "--partitions", "1", "--replication-factor", "1").getExitCode()).isZero();
+            }
+            catch (Exception ex) {
+                throw new IllegalStateException("Could not create topic " + topic, ex);
+            }
+        }
+    }
+
+    private static Iterable<String> listTopics(KafkaContainer kafka) {
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers()))) {
+            return admin.listTopics().names().get();
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException("Could not list the topics", ex);
+        }
+    }
+
+    @Test
+    void reportsReadyTimes() {
+        // pull the image, so it is not part of any measurement
+        new RemoteDockerImage(KAFKA_IMAGE).get();
+
+        var times = new LinkedHashMap<String, Duration>();
+        times.put("default", startToReady(new KafkaContainer(KAFKA_IMAGE),
+                FastKafkaContainerTest::createTopicsOneByOne));
+        times.put("default kraft", startToReady(new KafkaContainer(KAFKA_IMAGE).withKraft(),
+                FastKafkaContainerTest::createTopicsOneByOne));
+        var fast = new FastKafkaContainer(KAFKA_IMAGE).withTopics(TOPICS);
+        times.put("fast", startToReady(fast, kafka -> {
+        }));
+
+        var report = new StringBuilder("Start until %d topics exist:".formatted(TOPICS.length));
+        for (Map.Entry<String, Duration> time : times.entrySet()) {
+            report.append("%n  %-14s %6d ms".formatted(time.getKey(), time.getValue().toMillis()));
+        }
+        report.append("%n  of which the fast container created its topics in %d ms"
+                .formatted(fast.getTopicCreationTime().toMillis()));
+        log.info(report.toString());
+    }
+}
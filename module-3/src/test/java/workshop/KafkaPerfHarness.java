@@ -0,0 +1,272 @@
+package workshop;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Produces and consumes a volume of messages with kcat and reports the throughput of both, plus the end-to-end
+ * latency of every message.
+ * <p>
+ * The producer runs kcat in the sidecar with the producer settings passed through to librdkafka, so the numbers
+ * reflect those settings rather than a client of our own. Throughput is timed inside the sidecar, so {@code docker
+ * exec} overhead is not part of it. Latency is measured by a consumer in the test JVM that follows the topic while
+ * kcat produces, as the time from a message's create timestamp until it is received. The sidecar and the test share
+ * the clock of the Docker host, which makes this accurate to about a millisecond on Linux.
+ */
+final class KafkaPerfHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaPerfHarness.class);
+
+    private static final String MESSAGES_FILE = "/data/perf-msgs.txt";
+
+    /**
+     * How many distinct random messages are generated, and then repeated up to the volume.
+     */
+    private static final int DISTINCT_MESSAGES = 1000;
+
+    /**
+     * How long the latency consumer waits for the next message before it gives up.
+     */
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final double[] PERCENTILES = { 50, 95, 99, 99.9 };
+
+    private final KafkaContainer kafka;
+
+    private final GenericContainer<?> kcat;
+
+    private final String bootstrapServers;
+
+    /**
+     * @param bootstrapServers the listener kcat reaches the broker on through the shared network
+     */
+    KafkaPerfHarness(KafkaContainer kafka, GenericContainer<?> kcat, String bootstrapServers) {
+        this.kafka = kafka;
+        this.kcat = kcat;
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    Result run(Settings settings) throws Exception {
+        String topic = "perf-" + System.nanoTime();
+        exec(this.kafka, "kafka-topics", "--bootstrap-server", "localhost:9092", "--create", "--topic", topic,
+                "--partitions", String.valueOf(settings.partitions()), "--replication-factor", "1");
+        generateMessages(settings);
+
+        // the consumer has to be positioned before kcat produces, or the first latencies include its bootstrap
+        var positioned = new CountDownLatch(1);
+        CompletableFuture<long[]> latencies = CompletableFuture.supplyAsync(() -> follow(topic, settings, positioned));
+        if (!positioned.await(1, TimeUnit.MINUTES)) {
+            if (latencies.isDone()) {
+                latencies.join();
+            }
+            latencies.cancel(true);
+            throw new IllegalStateException("The latency consumer was not positioned on " + topic + " within a minute");
+        }
+        long produceNanos = timed(this.kcat, produceCommand(topic, settings));
+        long[] latenciesMillis = latencies.get();
+        long consumeNanos = timed(this.kcat, "kcat", "-b", this.bootstrapServers, "-C", "-t", topic, "-o", "beginning",
+                "-e", "-q", "-c", String.valueOf(settings.messages()), "-f", "%o\\n");
+
+        Arrays.sort(latenciesMillis);
+        var result = new Result(settings, megabytesPerSecond(settings, produceNanos),
+                megabytesPerSecond(settings, consumeNanos), settings.messages() / seconds(produceNanos),
+                latenciesMillis);
+        log.info("{}", result);
+        return result;
+    }
+
+    private void generateMessages(Settings settings) throws IOException {
+        // base64 of random bytes, so compression sees data that is neither trivially compressible nor incompressible
+        var random = new Random();
+        byte[][] distinct = new byte[Math.min(DISTINCT_MESSAGES, settings.messages())][];
+        for (int i = 0; i < distinct.length; i++) {
+            byte[] bytes = new byte[settings.messageSize()];
+            random.nextBytes(bytes);
+            distinct[i] = Arrays.copyOf(Base64.getEncoder().encode(bytes), settings.messageSize());
+        }
+        Path messages = Files.createTempFile("perf-msgs", ".txt");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(messages))) {
+                for (int i = 0; i < settings.messages(); i++) {
+                    out.write(distinct[i % distinct.length]);
+                    out.write('\n');
+                }
+            }
+            this.kcat.copyFileToContainer(MountableFile.forHostPath(messages), MESSAGES_FILE);
+        }
+        finally {
+            Files.delete(messages);
+        }
+    }
+
+    private String[] produceCommand(String topic, Settings settings) {
+        List<String> command = new ArrayList<>(List.of("kcat", "-b", this.bootstrapServers, "-t", topic, "-P", "-l"));
+        settings.producerProperties().forEach((name, value) -> {
+            command.add("-X");
+            command.add(name + "=" + value);
+        });
+        command.add(MESSAGES_FILE);
+        return command.toArray(String[]::new);
+    }
+
+    /**
+     * Receives every message of {@code topic}, counting {@code positioned} down once the consumer is positioned at
+     * the beginning of every partition and has fetched the metadata. Fails if no message arrives for
+     * {@link #IDLE_TIMEOUT} before all have been received.
+     */
+    private long[] follow(String topic, Settings settings, CountDownLatch positioned) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, this.kafka.getBootstrapServers(),
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10_000);
+        long[] latencies = new long[settings.messages()];
+        int received = 0;
+        try (var consumer = new KafkaConsumer<>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer())) {
+            consumer.assign(IntStream.range(0, settings.partitions()).mapToObj(p -> new TopicPartition(topic, p)).toList());
+            consumer.seekToBeginning(consumer.assignment());
+            // resolves the offsets the seek asked for, which needs the metadata of every partition
+            consumer.assignment().forEach(consumer::position);
+            positioned.countDown();
+            long idleSince = System.nanoTime();
+            while (received < latencies.length) {
+                var records = consumer.poll(Duration.ofMillis(100));
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (received < latencies.length) {
+                        latencies[received++] = System.currentTimeMillis() - record.timestamp();
+                    }
+                }
+                if (!records.isEmpty()) {
+                    idleSince = System.nanoTime();
+                }
+                else if (System.nanoTime() - idleSince > IDLE_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("Received only " + received + " of " + latencies.length
+                            + " messages, none arrived for " + IDLE_TIMEOUT);
+                }
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Runs {@code command} in {@code container} and returns how long it took there, in nanoseconds.
+     */
+    private static long timed(GenericContainer<?> container, String... command) throws IOException, InterruptedException {
+        String script = "start=$(date +%s%N) && " + String.join(" ", quoted(command))
+                + " > /dev/null && echo $(( $(date +%s%N) - start ))";
+        return Long.parseLong(exec(container, "sh", "-c", script).getStdout().trim());
+    }
+
+    private static List<String> quoted(String... command) {
+        return Arrays.stream(command).map(argument -> "'" + argument.replace("'", "'\\''") + "'").toList();
+    }
+
+    private static ExecResult exec(GenericContainer<?> container, String... command)
+            throws IOException, InterruptedException {
+        ExecResult result = container.execInContainer(command);
+        if (result.getExitCode() != 0) {
+            throw new IllegalStateException("'" + String.join(" ", command) + "' failed with exit code "
+                    + result.getExitCode() + ": " + result.getStderr());
+        }
+        return result;
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static double megabytesPerSecond(Settings settings, long nanos) {
+        return (double) settings.messages() * settings.messageSize() / (1024 * 1024) / seconds(nanos);
+    }
+
+    /**
+     * What to produce and how.
+     *
+     * @param messages how many messages are produced
+     * @param messageSize the size of every message in bytes
+     * @param partitions how many partitions the topic has
+     * @param lingerMs how long the producer waits to fill a batch
+     * @param batchSize the size of a batch in bytes
+     * @param compression the compression codec, {@code none}, {@code gzip}, {@code snappy}, {@code lz4} or {@code zstd}
+     * @param acks how many replicas acknowledge a batch, {@code 0}, {@code 1} or {@code all}
+     */
+    record Settings(int messages, int messageSize, int partitions, int lingerMs, int batchSize, String compression,
+            String acks) {
+
+        /**
+         * The settings given as {@code kafka.perf.*} system properties, or the defaults.
+         */
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("kafka.perf.messages", 100_000),
+                    Integer.getInteger("kafka.perf.message-size", 1024),
+                    Integer.getInteger("kafka.perf.partitions", 6),
+                    Integer.getInteger("kafka.perf.linger-ms", 5),
+                    Integer.getInteger("kafka.perf.batch-size", 65536),
+                    System.getProperty("kafka.perf.compression", "lz4"),
+                    System.getProperty("kafka.perf.acks", "all"));
+        }
+
+        Map<String, String> producerProperties() {
+            return Map.of(
+                    "linger.ms", String.valueOf(this.lingerMs),
+                    "batch.size", String.valueOf(this.batchSize),
+                    "compression.codec", this.compression,
+                    "acks", this.acks);
+        }
+
+    }
+
+    record Result(Settings settings, double produceMegabytesPerSecond, double consumeMegabytesPerSecond,
+            double producedMessagesPerSecond, long[] latenciesMillis) {
+
+        long percentileMillis(double percentile) {
+            if (this.latenciesMillis.length == 0) {
+                return -1;
+            }
+            int index = (int) Math.ceil(percentile / 100 * this.latenciesMillis.length) - 1;
+            return this.latenciesMillis[Math.max(index, 0)];
+        }
+
+        @Override
+        public String toString() {
+            var report = new StringBuilder("%s%n  produce %10.1f MB/s %12.0f msgs/s%n  consume %10.1f MB/s%n  received %d, latency"
+                    .formatted(this.settings, this.produceMegabytesPerSecond, this.producedMessagesPerSecond,
+                            this.consumeMegabytesPerSecond, this.latenciesMillis.length));
+            for (double percentile : PERCENTILES) {
+                report.append(" p%s=%d ms".formatted(String.valueOf(percentile).replace(".0", ""),
+                        percentileMillis(percentile)));
+            }
+            if (this.latenciesMillis.length > 0) {
+                report.append(" max=%d ms".formatted(this.latenciesMillis[this.latenciesMillis.length - 1]));
+            }
+            return report.toString();
+        }
+
+    }
+}
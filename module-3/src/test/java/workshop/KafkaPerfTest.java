@@ -0,0 +1,48 @@
+package workshop;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what the broker sustains for the producer settings given as {@code kafka.perf.*} system properties, see
+ * {@link KafkaPerfHarness.Settings}, for example {@code -Dkafka.perf.compression=zstd -Dkafka.perf.linger-ms=20}.
+ * <p>
+ * Only runs with {@code -Dkafka.perf=true}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "kafka.perf", matches = "true")
+class KafkaPerfTest {
+
+    static Network network = Network.newNetwork();
+
+    @Container
+    static KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.1"))
+            .withListener(() -> "kafka:19092")
+            .withNetwork(network);
+
+    @Container
+    static GenericContainer<?> kcat = new GenericContainer<>("confluentinc/cp-kcat:7.4.1")
+            .withCreateContainerCmdModifier(cmd -> {
+                cmd.withEntrypoint("sh");
+            })
+            .withNetwork(network)
+            .withCommand("-c", "tail -f /dev/null");
+
+    @Test
+    void throughputAndLatency() throws Exception {
+        var settings = KafkaPerfHarness.Settings.fromSystemProperties();
+        var result = new KafkaPerfHarness(kafka, kcat, "kafka:19092").run(settings);
+
+        assertThat(result.latenciesMillis()).hasSize(settings.messages());
+        assertThat(result.produceMegabytesPerSecond()).isPositive();
+        assertThat(result.consumeMegabytesPerSecond()).isPositive();
+    }
+}
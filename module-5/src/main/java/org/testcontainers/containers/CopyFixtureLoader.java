@@ -0,0 +1,303 @@
+package org.testcontainers.containers;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads fixture files into Postgres tables with <code>COPY ... FROM STDIN</code>, which is orders of magnitude faster
+ * than inserting row by row.
+ * <p>
+ * Each table is streamed over its own connection, in parallel. A stream only holds one buffer of
+ * {@link #withBufferSize(int) configurable size} in memory, however large the file is. While loading, the progress of
+ * every table is logged periodically.
+ */
+public class CopyFixtureLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CopyFixtureLoader.class);
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+    public enum Format {
+        /**
+         * Comma separated values with a header line.
+         */
+        CSV("(FORMAT csv, HEADER true)"),
+        /**
+         * The binary format written by <code>COPY ... TO ... WITH (FORMAT binary)</code>.
+         */
+        BINARY("(FORMAT binary)");
+
+        private final String options;
+
+        Format(String options) {
+            this.options = options;
+        }
+    }
+
+    private final List<Fixture> fixtures = new ArrayList<>();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+    /**
+     * Loads <code>file</code> into <code>table</code>. Without <code>columns</code>, the file has to contain all
+     * columns of the table in order.
+     */
+    public CopyFixtureLoader withFixture(String table, Path file, Format format, String... columns) {
+        this.fixtures.add(new Fixture(table, file, format, columns));
+        return this;
+    }
+
+    /**
+     * Sets how many bytes each stream reads from its file and sends to Postgres at a time.
+     */
+    public CopyFixtureLoader withBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Sets how many tables are loaded at the same time.
+     */
+    public CopyFixtureLoader withParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public CopyFixtureLoader withProgressInterval(Duration progressInterval) {
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
+    /**
+     * Loads all fixtures, each over its own connection from <code>dataSource</code>.
+     *
+     * @return the outcome per table, in the order the fixtures were added.
+     */
+    public List<TableLoad> load(DataSource dataSource) {
+        if (this.fixtures.isEmpty()) {
+            return new ArrayList<>();
+        }
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(this.parallelism, this.fixtures.size())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fixture-loader-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-loader-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<Fixture, Future<TableLoad>> loads = new LinkedHashMap<>();
+            for (Fixture fixture : this.fixtures) {
+                loads.put(fixture, executor.submit(() -> copy(dataSource, fixture)));
+            }
+            reporter.scheduleAtFixedRate(
+                    () -> this.fixtures.forEach(Fixture::logProgress),
+                    this.progressInterval.toMillis(),
+                    this.progressInterval.toMillis(),
+                    TimeUnit.MILLISECONDS
+            );
+
+            List<TableLoad> results = new ArrayList<>();
+            IllegalStateException failure = null;
+            for (Map.Entry<Fixture, Future<TableLoad>> load : loads.entrySet()) {
+                try {
+                    TableLoad result = load.getValue().get();
+                    log.info("{}", result);
+                    results.add(result);
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new IllegalStateException("Could not load all fixtures");
+                    }
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading fixtures", e);
+        } finally {
+            reporter.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    private TableLoad copy(DataSource dataSource, Fixture fixture) throws SQLException, IOException {
+        String sql = "COPY " + fixture.table + fixture.columnList() + " FROM STDIN WITH " + fixture.format.options;
+        fixture.bytesRead.set(0);
+        long start = System.nanoTime();
+        try (
+                Connection connection = dataSource.getConnection();
+                InputStream in = new CountingInputStream(Files.newInputStream(fixture.file), fixture.bytesRead)
+        ) {
+            long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, in, this.bufferSize);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            return new TableLoad(fixture.table, rows, fixture.bytesRead.get(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private static final class Fixture {
+
+        private final String table;
+
+        private final Path file;
+
+        private final Format format;
+
+        private final String[] columns;
+
+        private final AtomicLong bytesRead = new AtomicLong();
+
+        private final long size;
+
+        private Fixture(String table, Path file, Format format, String[] columns) {
+            this.table = table;
+            this.file = file;
+            this.format = format;
+            this.columns = columns;
+            try {
+                this.size = Files.size(file);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read fixture file " + file, e);
+            }
+        }
+
+        private String columnList() {
+            return this.columns.length == 0 ? "" : " (" + String.join(", ", this.columns) + ")";
+        }
+
+        private void logProgress() {
+            long read = this.bytesRead.get();
+            if (read < this.size) {
+                log.info(
+                        "Loading {}: {}% ({} of {} bytes)",
+                        this.table,
+                        this.size == 0 ? 100 : read * 100 / this.size,
+                        read,
+                        this.size
+                );
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                this.count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                this.count.addAndGet(read);
+            }
+            return read;
+        }
+    }
+
+    /**
+     * What loading one fixture file achieved.
+     */
+    public static final class TableLoad {
+
+        private final String table;
+
+        private final long rows;
+
+        private final long bytes;
+
+        private final Duration duration;
+
+        private TableLoad(String table, long rows, long bytes, Duration duration) {
+            this.table = table;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.duration = duration;
+        }
+
+        public String getTable() {
+            return this.table;
+        }
+
+        public long getRows() {
+            return this.rows;
+        }
+
+        public long getBytes() {
+            return this.bytes;
+        }
+
+        public Duration getDuration() {
+            return this.duration;
+        }
+
+        public double getRowsPerSecond() {
+            long nanos = Math.max(1, this.duration.toNanos());
+            return this.rows * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Loaded %d rows (%d bytes) into %s in %d ms, %.0f rows/s",
+                    this.rows,
+                    this.bytes,
+                    this.table,
+                    this.duration.toMillis(),
+                    getRowsPerSecond()
+            );
+        }
+    }
+}
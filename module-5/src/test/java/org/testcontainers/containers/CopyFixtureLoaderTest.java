@@ -0,0 +1,46 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CopyFixtureLoaderTest {
+
+    private static final int ROWS = 100_000;
+
+    @TempDir
+    Path fixtures;
+
+    @Test
+    void buildsTheTemplateFromCsvFixtures() throws IOException {
+        Path products = this.fixtures.resolve("products.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(products)) {
+            writer.write("code,name,price\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("F" + i + ",Fixture " + i + "," + i + "\n");
+            }
+        }
+        CopyFixtureLoader loader = new CopyFixtureLoader()
+                .withFixture("products", products, CopyFixtureLoader.Format.CSV, "code", "name", "price")
+                .withBufferSize(64 * 1024);
+
+        try (PostgresWithTemplates pg = new PostgresWithTemplates().withFixtures(loader)) {
+            pg.start();
+
+            try (PostgresWithTemplates.Clone clone = pg.takeClone()) {
+                var count = new JdbcTemplate(clone.getDataSource())
+                        .queryForObject("SELECT count(*) from products where code like 'F%';", Integer.class);
+                assertThat(count).isEqualTo(ROWS);
+            }
+        }
+    }
+}
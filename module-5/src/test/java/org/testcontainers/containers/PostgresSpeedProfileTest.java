@@ -0,0 +1,68 @@
+package org.testcontainers.containers;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresSpeedProfileTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresSpeedProfileTest.class);
+
+    private static final int INSERTS = 5_000;
+
+    @Test
+    void speedProfileAppliesSettingsAndSpeedsUpInserts() {
+        Duration defaults;
+        // the stock command, as PostgreSQLContainer itself already turns fsync off
+        try (PostgresWithTemplates pg = new PostgresWithTemplates().withCommand("postgres")) {
+            pg.start();
+            try (PostgresWithTemplates.Clone clone = pg.takeClone()) {
+                assertThat(new JdbcTemplate(clone.getDataSource()).queryForObject("SHOW fsync", String.class))
+                        .isEqualTo("on");
+            }
+            defaults = insertRows(pg);
+        }
+
+        Duration ephemeral;
+        try (PostgresWithTemplates pg = new PostgresWithTemplates().withEphemeralSpeedProfile().withUnloggedTables()) {
+            pg.start();
+            try (PostgresWithTemplates.Clone clone = pg.takeClone()) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(clone.getDataSource());
+                assertThat(jdbcTemplate.queryForObject("SHOW synchronous_commit", String.class)).isEqualTo("off");
+                assertThat(jdbcTemplate.queryForObject("SHOW full_page_writes", String.class)).isEqualTo("off");
+                assertThat(jdbcTemplate.queryForObject("SHOW shared_buffers", String.class)).isEqualTo("256MB");
+                assertThat(jdbcTemplate.queryForObject(
+                        "SELECT relpersistence FROM pg_class WHERE relname = 'products'",
+                        String.class
+                )).isEqualTo("u");
+            }
+            ephemeral = insertRows(pg);
+        }
+
+        log.info("{} single-row inserts: {} ms with the Postgres defaults, {} ms with the ephemeral speed profile",
+                INSERTS, defaults.toMillis(), ephemeral.toMillis());
+    }
+
+    private static Duration insertRows(PostgresWithTemplates pg) {
+        try (PostgresWithTemplates.Clone clone = pg.takeClone()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(clone.getDataSource());
+            long start = System.nanoTime();
+            for (int i = 0; i < INSERTS; i++) {
+                jdbcTemplate.update(
+                        "insert into products(code, name, price) values (?, ?, ?)",
+                        "C" + i,
+                        "Product C" + i,
+                        i
+                );
+            }
+            return Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+}
@@ -1,8 +1,512 @@
 package org.testcontainers.containers;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
-import org.testcontainers.utility.MountableFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.images.builder.Transferable;
 
-public class PostgresWithTemplates extends PostgreSQLContainer {
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
+/**
+ * A Postgres container that applies <code>schema.sql</code> once into the <code>test</code> database, turns it into a
+ * template and hands out fresh copies of it.
+ * <p>
+ * Creating a database from a template copies its files, which is much cheaper than running the DDL and seed data
+ * again for every test. Databases that are no longer used are dropped in the background.
+ * <p>
+ * With {@link #withCloneRing(int)}, a background thread keeps a number of copies ready, so taking one does not wait
+ * for <code>CREATE DATABASE</code>, which Postgres runs one at a time. Copies are handed out per thread, so parallel
+ * test workers can share one container.
+ * <p>
+ * {@link #withEphemeralSpeedProfile(int)} trades durability, which tests never need, for speed.
+ */
+public class PostgresWithTemplates extends PostgreSQLContainer<PostgresWithTemplates> {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresWithTemplates.class);
+
+    private static final String MAINTENANCE_DATABASE_NAME = "postgres";
+
+    private static final Duration CLONE_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final String SCHEMA_RESOURCE = "schema.sql";
+
+    private static final String DATA_DIRECTORY = "/var/lib/postgresql/data";
+
+    private static final int DEFAULT_MEMORY_LIMIT_MEGABYTES = 1024;
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?i)\\bcreate\\s+table\\b");
+
+    private boolean unloggedTables;
+
+    private CopyFixtureLoader fixtureLoader;
+
+    private final AtomicInteger clones = new AtomicInteger();
+
+    private int cloneRingSize;
+
+    private final BlockingQueue<String> readyClones = new LinkedBlockingQueue<>();
+
+    private Semaphore freeRingSlots;
+
+    private ExecutorService producer;
+
+    private ExecutorService cleaner;
+
+    private volatile boolean snapshotted;
+
+    private final ThreadLocal<Clone> currentClone = new ThreadLocal<>();
+
+    private final Set<Clone> openClones = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong takes = new AtomicLong();
+
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final DataSource dataSource = new DelegatingDataSource() {
+        @Override
+        public DataSource getTargetDataSource() {
+            Clone clone = currentClone.get();
+            if (clone == null) {
+                reset();
+                clone = currentClone.get();
+            }
+            return clone.dataSource;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            // the target is resolved per thread when a connection is requested
+        }
+    };
+
+    public PostgresWithTemplates() {
+        super("postgres:16-alpine");
+    }
+
+    /**
+     * Runs Postgres without durability, with a 1 GB memory limit.
+     *
+     * @see #withEphemeralSpeedProfile(int)
+     */
+    public PostgresWithTemplates withEphemeralSpeedProfile() {
+        return withEphemeralSpeedProfile(DEFAULT_MEMORY_LIMIT_MEGABYTES);
+    }
+
+    /**
+     * Runs Postgres without durability: the data directory lives on a tmpfs, and <code>fsync</code>,
+     * <code>synchronous_commit</code> and <code>full_page_writes</code> are off. The container memory is limited to
+     * <code>memoryLimitMegabytes</code>, a quarter of which goes to <code>shared_buffers</code>. The tmpfs counts
+     * towards the limit, so it has to hold the data as well.
+     */
+    public PostgresWithTemplates withEphemeralSpeedProfile(int memoryLimitMegabytes) {
+        ContainerDef containerDef = getContainerDef();
+        containerDef.setCommand(
+                "postgres",
+                "-c", "fsync=off",
+                "-c", "synchronous_commit=off",
+                "-c", "full_page_writes=off",
+                "-c", "shared_buffers=" + memoryLimitMegabytes / 4 + "MB"
+        );
+        // initdb wants an empty directory it can own, which the tmpfs mount point itself is not
+        containerDef.addEnvVar("PGDATA", DATA_DIRECTORY + "/pgdata");
+        withTmpFs(Collections.singletonMap(DATA_DIRECTORY, "rw"));
+        withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withMemory(memoryLimitMegabytes * 1024L * 1024L));
+        return this;
+    }
+
+    /**
+     * Creates the tables of <code>schema.sql</code> as <code>UNLOGGED</code>, so writing to them skips the WAL.
+     */
+    public PostgresWithTemplates withUnloggedTables() {
+        this.unloggedTables = true;
+        return this;
+    }
+
+    /**
+     * Keeps <code>size</code> copies of the template ready to be taken.
+     */
+    public PostgresWithTemplates withCloneRing(int size) {
+        this.cloneRingSize = size;
+        return this;
+    }
+
+    /**
+     * Bulk loads fixtures into the template after <code>schema.sql</code> was applied and before it is snapshotted.
+     */
+    public PostgresWithTemplates withFixtures(CopyFixtureLoader fixtureLoader) {
+        this.fixtureLoader = fixtureLoader;
+        return this;
+    }
+
+    @Override
+    protected void configure() {
+        super.configure();
+        String schema = readSchema();
+        if (this.unloggedTables) {
+            schema = CREATE_TABLE.matcher(schema).replaceAll("create unlogged table");
+        }
+        withCopyToContainer(Transferable.of(schema), "/docker-entrypoint-initdb.d/" + SCHEMA_RESOURCE);
+    }
+
+    private static String readSchema() {
+        try (InputStream schema = PostgresWithTemplates.class.getClassLoader().getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (schema == null) {
+                throw new IllegalStateException(SCHEMA_RESOURCE + " was not found on the classpath");
+            }
+            return new String(schema.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void containerIsStarted(InspectContainerResponse containerInfo) {
+        super.containerIsStarted(containerInfo);
+        this.cleaner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "postgres-template-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.fixtureLoader != null) {
+            this.fixtureLoader.load(
+                    new DriverManagerDataSource(getJdbcUrl(getDatabaseName()), getUsername(), getPassword())
+            );
+        }
+        snapshot();
+    }
+
+    /**
+     * Marks the <code>test</code> database as a template and starts filling the clone ring, if there is one. Calling
+     * it again, e.g. after changing the template, drops the copies of the previous snapshot that were not taken yet.
+     */
+    public void snapshot() {
+        stopCloneRing();
+        execute("ALTER DATABASE " + quote(getDatabaseName()) + " WITH is_template = TRUE");
+        this.snapshotted = true;
+        if (this.cloneRingSize > 0) {
+            this.freeRingSlots = new Semaphore(this.cloneRingSize);
+            this.producer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "postgres-template-ring");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.producer.execute(this::fillCloneRing);
+        }
+    }
+
+    private void fillCloneRing() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                this.freeRingSlots.acquire();
+                try {
+                    String databaseName = cloneDatabase();
+                    if (Thread.currentThread().isInterrupted()) {
+                        // the ring was stopped while the copy was being created
+                        dropDatabaseAsync(databaseName);
+                        return;
+                    }
+                    this.readyClones.add(databaseName);
+                } catch (RuntimeException e) {
+                    this.freeRingSlots.release();
+                    log.warn("Could not create a database for the clone ring", e);
+                    Thread.sleep(100);
+                }
+            }
+        } catch (InterruptedException e) {
+            // the container is stopping
+        }
+    }
+
+    private void stopCloneRing() {
+        if (this.producer == null) {
+            return;
+        }
+        this.producer.shutdownNow();
+        try {
+            if (!this.producer.awaitTermination(CLONE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("The clone ring did not stop within {}", CLONE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.producer = null;
+        for (String databaseName; (databaseName = this.readyClones.poll()) != null; ) {
+            dropDatabaseAsync(databaseName);
+        }
+    }
+
+    /**
+     * Switches {@link #getDataSource()} to a fresh copy of the template for the calling thread and drops the copy it
+     * used before in the background.
+     */
+    public void reset() {
+        Clone previous = this.currentClone.get();
+        this.currentClone.set(takeClone());
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Takes a fresh copy of the template, from the clone ring if there is one.
+     *
+     * @return the copy, to be closed when it is no longer used.
+     */
+    public Clone takeClone() {
+        long start = System.nanoTime();
+        String databaseName;
+        if (this.cloneRingSize > 0) {
+            try {
+                databaseName = this.readyClones.poll(CLONE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a database from the clone ring", e);
+            }
+            if (databaseName == null) {
+                throw new IllegalStateException("No database from the clone ring became ready within " + CLONE_TIMEOUT);
+            }
+            this.freeRingSlots.release();
+        } else {
+            databaseName = cloneDatabase();
+        }
+        long waitNanos = System.nanoTime() - start;
+        this.takes.incrementAndGet();
+        this.totalWaitNanos.addAndGet(waitNanos);
+        this.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        Clone clone = new Clone(databaseName);
+        this.openClones.add(clone);
+        return clone;
+    }
+
+    /**
+     * Creates a new database from the template.
+     *
+     * @return the name of the new database.
+     */
+    public String cloneDatabase() {
+        String databaseName = getDatabaseName() + "_" + this.clones.incrementAndGet();
+        execute("CREATE DATABASE " + quote(databaseName) + " TEMPLATE " + quote(getDatabaseName()));
+        return databaseName;
+    }
+
+    /**
+     * Drops a database created by {@link #cloneDatabase()} without waiting for it, terminating its connections.
+     */
+    public void dropDatabaseAsync(String databaseName) {
+        ExecutorService cleaner = this.cleaner;
+        if (cleaner == null) {
+            throw new IllegalStateException("container not started");
+        }
+        cleaner.execute(() -> {
+            try {
+                execute("DROP DATABASE IF EXISTS " + quote(databaseName) + " WITH (FORCE)");
+            } catch (RuntimeException e) {
+                log.warn("Could not drop database {}", databaseName, e);
+            }
+        });
+    }
+
+    /**
+     * Gets a data source that points to the current copy of the template of the calling thread, e.g. to be exposed as
+     * the <code>DataSource</code> bean of a Spring test. A thread gets its first copy when it first asks for a
+     * connection, and a new one on every {@link #reset()}.
+     */
+    public DataSource getDataSource() {
+        return this.dataSource;
+    }
+
+    public String getCurrentDatabaseName() {
+        Clone clone = this.currentClone.get();
+        return clone == null ? null : clone.getDatabaseName();
+    }
+
+    /**
+     * Gets the URL of the current copy of the template of the calling thread, taking one first if needed, so
+     * consumers wired the usual way never connect to the template itself. Unlike {@link #getDataSource()}, the URL
+     * does not follow later {@link #reset()}s of other threads.
+     */
+    @Override
+    public String getJdbcUrl() {
+        if (!this.snapshotted) {
+            // the template is still being set up, e.g. by the wait strategy or the fixture loader
+            return super.getJdbcUrl();
+        }
+        if (this.currentClone.get() == null) {
+            reset();
+        }
+        return this.currentClone.get().getJdbcUrl();
+    }
+
+    public String getJdbcUrl(String databaseName) {
+        return "jdbc:postgresql://" + getHost() + ":" + getMappedPort(POSTGRESQL_PORT) + "/" + databaseName +
+                constructUrlParameters("?", "&");
+    }
+
+    public CloneRingMetrics getCloneRingMetrics() {
+        return new CloneRingMetrics(
+                this.readyClones.size(),
+                this.takes.get(),
+                Duration.ofNanos(this.totalWaitNanos.get()),
+                Duration.ofNanos(this.maxWaitNanos.get())
+        );
+    }
+
+    @Override
+    public void stop() {
+        if (this.producer != null) {
+            this.producer.shutdownNow();
+            this.producer = null;
+        }
+        if (this.cleaner != null) {
+            this.cleaner.shutdownNow();
+            this.cleaner = null;
+        }
+        this.snapshotted = false;
+        this.openClones.forEach(it -> it.dataSource.destroy());
+        this.openClones.clear();
+        this.readyClones.clear();
+        super.stop();
+    }
+
+    private void execute(String sql) {
+        Properties info = new Properties();
+        info.put("user", getUsername());
+        info.put("password", getPassword());
+        try (
+                Connection connection = getJdbcDriverInstance().connect(getJdbcUrl(MAINTENANCE_DATABASE_NAME), info);
+                Statement statement = connection.createStatement()
+        ) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not execute '" + sql + "'", e);
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * A copy of the template taken by one test. Closing it drops the database in the background.
+     */
+    public final class Clone implements AutoCloseable {
+
+        private final String databaseName;
+
+        private final SingleConnectionDataSource dataSource;
+
+        private Clone(String databaseName) {
+            this.databaseName = databaseName;
+            this.dataSource = new SingleConnectionDataSource(
+                    PostgresWithTemplates.this.getJdbcUrl(databaseName),
+                    getUsername(),
+                    getPassword(),
+                    true
+            );
+        }
+
+        public String getDatabaseName() {
+            return this.databaseName;
+        }
+
+        public String getJdbcUrl() {
+            return PostgresWithTemplates.this.getJdbcUrl(this.databaseName);
+        }
+
+        /**
+         * @return a data source that keeps a single connection to this copy open until it is closed.
+         */
+        public DataSource getDataSource() {
+            return this.dataSource;
+        }
+
+        @Override
+        public void close() {
+            if (openClones.remove(this)) {
+                this.dataSource.destroy();
+                dropDatabaseAsync(this.databaseName);
+            }
+        }
+    }
+
+    /**
+     * A snapshot of how well the clone ring keeps up with the tests.
+     */
+    public static final class CloneRingMetrics {
+
+        private final int readyClones;
+
+        private final long takes;
+
+        private final Duration totalWait;
+
+        private final Duration maxWait;
+
+        private CloneRingMetrics(int readyClones, long takes, Duration totalWait, Duration maxWait) {
+            this.readyClones = readyClones;
+            this.takes = takes;
+            this.totalWait = totalWait;
+            this.maxWait = maxWait;
+        }
+
+        /**
+         * @return copies that are created and waiting to be taken.
+         */
+        public int getReadyClones() {
+            return this.readyClones;
+        }
+
+        public long getTakes() {
+            return this.takes;
+        }
+
+        /**
+         * @return how long tests waited for their copies in total.
+         */
+        public Duration getTotalWait() {
+            return this.totalWait;
+        }
+
+        public Duration getMaxWait() {
+            return this.maxWait;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "CloneRingMetrics[readyClones=%d, takes=%d, totalWait=%s, maxWait=%s]",
+                    this.readyClones,
+                    this.takes,
+                    this.totalWait,
+                    this.maxWait
+            );
+        }
+    }
 }
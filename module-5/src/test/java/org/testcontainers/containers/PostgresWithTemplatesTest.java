@@ -4,13 +4,95 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
 class PostgresWithTemplatesTest {
 
+    @Container
+    static PostgresWithTemplates pg = new PostgresWithTemplates().withCloneRing(2);
+
+    @TestConfiguration
+    static class TemplateDataSourceConfiguration {
+
+        @Bean
+        DataSource dataSource() {
+            return pg.getDataSource();
+        }
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void reset() {
+        pg.reset();
+    }
+
+    @Test
+    void contextLoads() {
+        verifySeedDataAndTruncate();
+    }
+
+    @Test
+    void contextLoads2() {
+        verifySeedDataAndTruncate();
+    }
+
+    @Test
+    void jdbcUrlPointsToTheCurrentCopyRatherThanTheTemplate() {
+        assertThat(pg.getCurrentDatabaseName()).isNotEqualTo("test");
+        assertThat(pg.getJdbcUrl()).isEqualTo(pg.getJdbcUrl(pg.getCurrentDatabaseName()));
+    }
+
+    @Test
+    void clonesTakenConcurrentlyAreIsolated() {
+        try (
+                PostgresWithTemplates.Clone first = pg.takeClone();
+                PostgresWithTemplates.Clone second = pg.takeClone()
+        ) {
+            new JdbcTemplate(first.getDataSource()).execute("TRUNCATE TABLE products;");
+
+            var count = new JdbcTemplate(second.getDataSource()).queryForObject("SELECT count(*) from products;", Integer.class);
+            assertThat(count).isPositive();
+            assertThat(first.getDatabaseName()).isNotEqualTo(second.getDatabaseName());
+        }
+        assertThat(pg.getCloneRingMetrics().getTakes()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void snapshottingAgainReplacesTheCloneRing() {
+        pg.snapshot();
+        pg.snapshot();
+
+        assertThat(Thread.getAllStackTraces().keySet())
+                .filteredOn(it -> it.getName().equals("postgres-template-ring"))
+                .hasSize(1);
+        try (PostgresWithTemplates.Clone clone = pg.takeClone()) {
+            var count = new JdbcTemplate(clone.getDataSource()).queryForObject("SELECT count(*) from products;", Integer.class);
+            assertThat(count).isPositive();
+        }
+        assertThat(pg.getCloneRingMetrics().getReadyClones()).isLessThanOrEqualTo(2);
+    }
+
+    private void verifySeedDataAndTruncate() {
+        String s = jdbcTemplate.queryForObject("SELECT current_database();", String.class);
+        assertThat(s).isEqualTo(pg.getCurrentDatabaseName()).isNotEqualTo("test");
+
+        var count = jdbcTemplate.queryForObject("SELECT count(*) from products;", Integer.class);
+        assertThat(count).isPositive();
+        jdbcTemplate.execute("TRUNCATE TABLE products;");
+
+        var afterTruncate = jdbcTemplate.queryForObject("SELECT count(*) from products;", Integer.class);
+        assertThat(afterTruncate).isZero();
+    }
 }
@@ -0,0 +1,313 @@
+package org.testcontainers.ollama;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.MemoryStatsConfig;
+import com.github.dockerjava.api.model.Statistics;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Starts Ollama once for every {@link Configuration} of a sweep, and has concurrent clients stream completions from
+ * {@code /api/generate} while others request {@code /api/embeddings}, so both models have to be loaded at once.
+ * <p>
+ * For every configuration it reports the generated tokens per second over all clients, the time from sending a
+ * completion request until its first token arrives, the embeddings per second and their latency, and the peak memory
+ * of the container. Memory is what {@code docker stats} reports, which includes the page cache of the memory mapped
+ * model files. Both models are baked into the image with {@link OllamaModelImages}, so only the first run pulls them.
+ */
+final class OllamaBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaBenchmark.class);
+
+    private final Settings settings;
+
+    OllamaBenchmark(Settings settings) {
+        this.settings = settings;
+    }
+
+    List<Result> run() throws Exception {
+        var image = OllamaModelImages.image(this.settings.image(),
+                List.of(this.settings.model(), this.settings.embeddingModel()));
+        var results = new ArrayList<Result>();
+        for (Configuration configuration : this.settings.configurations()) {
+            try (OllamaContainer ollama = new OllamaContainer(image).withEnv(configuration.env())) {
+                ollama.start();
+                results.add(run(ollama, configuration));
+            }
+        }
+        var report = new StringBuilder("%s and %s with %d generating and %d embedding clients, %d requests each:%n%s"
+                .formatted(this.settings.model(), this.settings.embeddingModel(), this.settings.clients(),
+                        this.settings.embeddingClients(), this.settings.requests(), Result.HEADER));
+        results.forEach(result -> report.append("%n").append(result));
+        log.info(report.toString());
+        return results;
+    }
+
+    private Result run(OllamaContainer ollama, Configuration configuration) throws Exception {
+        String endpoint = ollama.getEndpoint();
+        // loads both models, so the runs compare serving rather than loading
+        generate(endpoint, configuration, 0);
+        embed(endpoint, 0);
+
+        var completions = new ConcurrentLinkedQueue<Completion>();
+        var embeddingLatencies = new ConcurrentLinkedQueue<Long>();
+        var errors = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        int threads = this.settings.clients() + this.settings.embeddingClients();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (MemorySampler memory = new MemorySampler(ollama.getContainerId())) {
+            var tasks = new ArrayList<Future<?>>();
+            for (int client = 0; client < threads; client++) {
+                boolean generating = client < this.settings.clients();
+                int offset = client * this.settings.requests();
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int request = 1; request <= this.settings.requests(); request++) {
+                        try {
+                            if (generating) {
+                                completions.add(generate(endpoint, configuration, offset + request));
+                            }
+                            else {
+                                embeddingLatencies.add(embed(endpoint, offset + request));
+                            }
+                        }
+                        catch (Exception ex) {
+                            errors.incrementAndGet();
+                            log.warn("Request {} of {} failed", request, configuration, ex);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            double seconds = (System.nanoTime() - began) / (double) TimeUnit.SECONDS.toNanos(1);
+            List<Long> firstTokens = completions.stream()
+                    .map(Completion::firstTokenNanos)
+                    .filter(nanos -> nanos >= 0)
+                    .toList();
+            return new Result(configuration, completions.stream().mapToLong(Completion::tokens).sum() / seconds,
+                    percentile(firstTokens, 50), percentile(firstTokens, 95),
+                    embeddingLatencies.size() / seconds, percentile(embeddingLatencies, 50),
+                    memory.peakBytes(), errors.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Completion generate(String endpoint, Configuration configuration, int request) throws IOException {
+        var options = new LinkedHashMap<String, Object>();
+        options.put("num_predict", this.settings.numPredict());
+        options.put("temperature", 0);
+        options.put("seed", 42);
+        if (configuration.threads() > 0) {
+            options.put("num_thread", configuration.threads());
+        }
+        long start = System.nanoTime();
+        Response response = given().baseUri(endpoint)
+                .contentType(ContentType.JSON)
+                .body(Map.of("model", this.settings.model(),
+                        "prompt", "Write a short story about container number " + request + ".",
+                        "options", options))
+                .post("/api/generate");
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Generating failed with " + response.statusCode() + ": "
+                    + response.asString());
+        }
+        long firstToken = -1;
+        try (var lines = new BufferedReader(new InputStreamReader(response.asInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                JsonPath chunk = JsonPath.from(line);
+                String token = chunk.getString("response");
+                if (firstToken < 0 && token != null && !token.isEmpty()) {
+                    firstToken = System.nanoTime() - start;
+                }
+                if (chunk.getBoolean("done")) {
+                    return new Completion(firstToken, chunk.getLong("eval_count"));
+                }
+            }
+        }
+        throw new IllegalStateException("The completion ended before it was done");
+    }
+
+    private long embed(String endpoint, int request) {
+        long start = System.nanoTime();
+        List<Float> embedding = given().baseUri(endpoint)
+                .contentType(ContentType.JSON)
+                .body(Map.of("model", this.settings.embeddingModel(), "prompt", "Container number " + request))
+                .post("/api/embeddings")
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("embedding");
+        if (embedding.isEmpty()) {
+            throw new IllegalStateException("The embedding is empty");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Duration percentile(Collection<Long> nanos, double percentile) {
+        if (nanos.isEmpty()) {
+            return Duration.ZERO;
+        }
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(index, 0)]);
+    }
+
+    private record Completion(long firstTokenNanos, long tokens) {
+    }
+
+    /**
+     * Follows the memory use of a container as {@code docker stats} does, about once a second.
+     */
+    private static final class MemorySampler implements Closeable {
+
+        private final AtomicLong peakBytes = new AtomicLong();
+
+        private final ResultCallback.Adapter<Statistics> callback;
+
+        MemorySampler(String containerId) {
+            this.callback = DockerClientFactory.instance().client().statsCmd(containerId)
+                    .exec(new ResultCallback.Adapter<>() {
+
+                        @Override
+                        public void onNext(Statistics statistics) {
+                            MemoryStatsConfig memory = statistics.getMemoryStats();
+                            if (memory != null && memory.getUsage() != null) {
+                                MemorySampler.this.peakBytes.accumulateAndGet(memory.getUsage(), Math::max);
+                            }
+                        }
+                    });
+        }
+
+        long peakBytes() {
+            return this.peakBytes.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.callback.close();
+        }
+    }
+
+    /**
+     * How Ollama is configured for one run of a sweep.
+     *
+     * @param numParallel how many requests a loaded model serves at once, {@code OLLAMA_NUM_PARALLEL}
+     * @param maxLoadedModels how many models are kept loaded at once, {@code OLLAMA_MAX_LOADED_MODELS}
+     * @param keepAlive how long a model stays loaded after its last request, {@code OLLAMA_KEEP_ALIVE}
+     * @param threads how many threads a completion uses, the {@code num_thread} option, or 0 to let Ollama decide
+     */
+    record Configuration(int numParallel, int maxLoadedModels, String keepAlive, int threads) {
+
+        Map<String, String> env() {
+            return Map.of(
+                    "OLLAMA_NUM_PARALLEL", String.valueOf(this.numParallel),
+                    "OLLAMA_MAX_LOADED_MODELS", String.valueOf(this.maxLoadedModels),
+                    "OLLAMA_KEEP_ALIVE", this.keepAlive);
+        }
+
+    }
+
+    /**
+     * What a sweep runs, read from {@code ollama.bench.*} system properties. Every combination of the comma separated
+     * values of {@code num-parallel}, {@code max-loaded-models}, {@code keep-alive} and {@code threads} is one
+     * {@link Configuration}.
+     *
+     * @param image the Ollama image, which needs to support {@code OLLAMA_NUM_PARALLEL}
+     * @param model the model completions are generated with
+     * @param embeddingModel the model embeddings are computed with
+     * @param clients how many clients stream completions at once
+     * @param embeddingClients how many clients request embeddings at the same time
+     * @param requests how many requests every client sends, one after the other
+     * @param numPredict how many tokens a completion has at most
+     * @param configurations the configurations to sweep
+     */
+    record Settings(String image, String model, String embeddingModel, int clients, int embeddingClients,
+            int requests, int numPredict, List<Configuration> configurations) {
+
+        static Settings fromSystemProperties() {
+            var configurations = new ArrayList<Configuration>();
+            for (String numParallel : list("ollama.bench.num-parallel", "1,2,4")) {
+                for (String maxLoadedModels : list("ollama.bench.max-loaded-models", "1,2")) {
+                    for (String keepAlive : list("ollama.bench.keep-alive", "5m")) {
+                        for (String threads : list("ollama.bench.threads", "0")) {
+                            configurations.add(new Configuration(Integer.parseInt(numParallel),
+                                    Integer.parseInt(maxLoadedModels), keepAlive, Integer.parseInt(threads)));
+                        }
+                    }
+                }
+            }
+            return new Settings(
+                    System.getProperty("ollama.bench.image", "ollama/ollama:0.1.48"),
+                    System.getProperty("ollama.bench.model", "qwen2:0.5b"),
+                    System.getProperty("ollama.bench.embedding-model", "all-minilm"),
+                    Integer.getInteger("ollama.bench.clients", 4),
+                    Integer.getInteger("ollama.bench.embedding-clients", 2),
+                    Integer.getInteger("ollama.bench.requests", 3),
+                    Integer.getInteger("ollama.bench.num-predict", 64),
+                    configurations);
+        }
+
+        private static List<String> list(String property, String defaultValue) {
+            return Arrays.stream(System.getProperty(property, defaultValue).split(","))
+                    .map(String::trim)
+                    .collect(Collectors.toList());
+        }
+
+    }
+
+    record Result(Configuration configuration, double tokensPerSecond, Duration firstTokenP50,
+            Duration firstTokenP95, double embeddingsPerSecond, Duration embeddingP50, long peakMemoryBytes,
+            int errors) {
+
+        static final String HEADER = "  parallel  loaded  keep-alive  threads   tokens/s  ttft p50  ttft p95  "
+                + "embeddings/s  embedding p50  peak memory  errors";
+
+        @Override
+        public String toString() {
+            return "  %8d  %6d  %10s  %7d  %9.1f  %5d ms  %5d ms  %12.1f  %10d ms  %7d MiB  %6d".formatted(
+                    this.configuration.numParallel(), this.configuration.maxLoadedModels(),
+                    this.configuration.keepAlive(), this.configuration.threads(), this.tokensPerSecond,
+                    this.firstTokenP50.toMillis(), this.firstTokenP95.toMillis(), this.embeddingsPerSecond,
+                    this.embeddingP50.toMillis(), this.peakMemoryBytes / (1024 * 1024), this.errors);
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.testcontainers.ollama;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.DockerClientFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Sweeps the Ollama parallelism settings with {@link OllamaBenchmark}. Only runs with {@code -Dollama.bench=true},
+ * see {@link OllamaBenchmark.Settings} for the other {@code ollama.bench.*} properties.
+ */
+@EnabledIfSystemProperty(named = "ollama.bench", matches = "true")
+class OllamaBenchmarkTest {
+
+    @BeforeAll
+    static void dockerIsAvailable() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+    }
+
+    @Test
+    void sweep() throws Exception {
+        var settings = OllamaBenchmark.Settings.fromSystemProperties();
+
+        var results = new OllamaBenchmark(settings).run();
+
+        assertThat(results).hasSameSizeAs(settings.configurations())
+                .allSatisfy(result -> assertThat(result.errors()).isZero());
+    }
+
+}
@@ -0,0 +1,233 @@
+package org.testcontainers.ollama;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.ConflictException;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Image;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Creates {@link OllamaContainer}s from images that already contain the models, instead of pulling the models into
+ * every new container.
+ * <p>
+ * The first time a list of models is asked for, they are pulled into a container which is then committed to an
+ * image. That image is found by its labels on later runs, so no network is needed anymore. Every model adds one
+ * layer on top of the image with the models before it, which is baked and reused the same way, so images that start
+ * with the same models share their layers. The tag is a hash of the model digests, and {@link #evictStale(String)}
+ * removes images that were baked from another Ollama image or whose models have since been baked again.
+ */
+public final class OllamaModelImages {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaModelImages.class);
+
+    static final String BASE_IMAGE = "ollama/ollama:0.1.26";
+
+    static final String BASE_LABEL = "org.testcontainers.workshop.ollama.base";
+
+    static final String MODELS_LABEL = "org.testcontainers.workshop.ollama.models";
+
+    static final String DIGESTS_LABEL = "org.testcontainers.workshop.ollama.digests";
+
+    private OllamaModelImages() {
+    }
+
+    /**
+     * A new container from {@link #BASE_IMAGE} with <code>models</code>, baking the image first if needed.
+     */
+    public static OllamaContainer withModels(String... models) {
+        return new OllamaContainer(image(BASE_IMAGE, List.of(models)));
+    }
+
+    /**
+     * The image of <code>baseImage</code> with <code>models</code>, in that order, baking it first if needed.
+     */
+    public static DockerImageName image(String baseImage, List<String> models) {
+        if (models.isEmpty()) {
+            return DockerImageName.parse(baseImage);
+        }
+        return find(baseImage, models)
+                .map(image -> {
+                    log.info("Using the baked image {}", image);
+                    return image;
+                })
+                .orElseGet(() -> bake(baseImage, models));
+    }
+
+    /**
+     * The most recently baked image of <code>baseImage</code> with <code>models</code>, without any network access.
+     */
+    static Optional<DockerImageName> find(String baseImage, List<String> models) {
+        List<Image> images = client().listImagesCmd()
+                .withLabelFilter(Map.of(BASE_LABEL, baseImage, MODELS_LABEL, String.join(",", models)))
+                .exec();
+        return images.stream()
+                .filter(image -> !repoTags(image).isEmpty())
+                .max(Comparator.comparing(Image::getCreated))
+                .map(image -> asOllamaImage(repoTags(image).get(0)));
+    }
+
+    /**
+     * Pulls the last of <code>models</code> into a container of the image with the ones before it and commits the
+     * container to a new image, replacing any earlier image of the same models.
+     */
+    static DockerImageName bake(String baseImage, List<String> models) {
+        String model = models.get(models.size() - 1);
+        DockerImageName parent = image(baseImage, models.subList(0, models.size() - 1));
+        long start = System.nanoTime();
+        try (OllamaContainer ollama = new OllamaContainer(asOllamaImage(parent.asCanonicalNameString()))) {
+            ollama.start();
+            ExecResult pull = ollama.execInContainer("ollama", "pull", model);
+            if (pull.getExitCode() != 0) {
+                throw new ContainerLaunchException("Could not pull " + model + ": " + pull.getStderr());
+            }
+            String digests = parentDigests(parent).map(it -> it + ",").orElse("")
+                    + model + "@" + digest(ollama, model);
+
+            String repository = String.join("-", models).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.-]", "_");
+            DockerImageName image = DockerImageName.parse("tc-ollama-" + repository)
+                    .withTag(DockerImageName.parse(baseImage).getVersionPart() + "-" + hash(baseImage + "|" + digests));
+            var labels = new LinkedHashMap<String, String>();
+            // keeps the image from being removed with the containers of this session
+            labels.put("org.testcontainers.sessionId", "");
+            labels.put(BASE_LABEL, baseImage);
+            labels.put(MODELS_LABEL, String.join(",", models));
+            labels.put(DIGESTS_LABEL, digests);
+            client().commitCmd(ollama.getContainerId())
+                    .withRepository(image.getUnversionedPart())
+                    .withTag(image.getVersionPart())
+                    .withLabels(labels)
+                    .exec();
+            log.info("Baked {} with {} in {} ms", image, digests,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            removeSuperseded(baseImage, models, image);
+            return asOllamaImage(image.asCanonicalNameString());
+        }
+        catch (IOException ex) {
+            throw new ContainerLaunchException("Could not pull " + model, ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ContainerLaunchException("Interrupted while pulling " + model, ex);
+        }
+    }
+
+    /**
+     * Removes the baked images of any other base image than <code>baseImage</code>, and those that have been baked
+     * again since. Images that other images are built on are kept until those are removed too.
+     *
+     * @return the removed images.
+     */
+    public static List<String> evictStale(String baseImage) {
+        var newest = new LinkedHashMap<String, Image>();
+        var removed = new ArrayList<String>();
+        var images = new ArrayList<>(client().listImagesCmd().withLabelFilter(MODELS_LABEL).exec());
+        images.sort(Comparator.comparing(Image::getCreated).reversed());
+        for (Image image : images) {
+            Map<String, String> labels = image.getLabels();
+            String key = labels.get(BASE_LABEL) + "|" + labels.get(MODELS_LABEL);
+            boolean superseded = newest.putIfAbsent(key, image) != null;
+            if (superseded || !baseImage.equals(labels.get(BASE_LABEL))) {
+                removed.addAll(remove(image));
+            }
+        }
+        return removed;
+    }
+
+    private static void removeSuperseded(String baseImage, List<String> models, DockerImageName current) {
+        List<Image> images = client().listImagesCmd()
+                .withLabelFilter(Map.of(BASE_LABEL, baseImage, MODELS_LABEL, String.join(",", models)))
+                .exec();
+        for (Image image : images) {
+            if (!repoTags(image).contains(current.asCanonicalNameString())) {
+                remove(image);
+            }
+        }
+    }
+
+    private static List<String> remove(Image image) {
+        var removed = new ArrayList<String>();
+        for (String tag : repoTags(image)) {
+            try {
+                client().removeImageCmd(tag).exec();
+                removed.add(tag);
+                log.info("Removed the stale image {}", tag);
+            }
+            catch (ConflictException ex) {
+                log.info("Keeping {}, it is still in use: {}", tag, ex.getMessage());
+            }
+            catch (NotFoundException ex) {
+                // removed in the meantime
+            }
+        }
+        return removed;
+    }
+
+    private static List<String> repoTags(Image image) {
+        return image.getRepoTags() == null ? List.of() : List.of(image.getRepoTags());
+    }
+
+    private static Optional<String> parentDigests(DockerImageName parent) {
+        try {
+            Map<String, String> labels = client().inspectImageCmd(parent.asCanonicalNameString()).exec()
+                    .getConfig()
+                    .getLabels();
+            return Optional.ofNullable(labels == null ? null : labels.get(DIGESTS_LABEL));
+        }
+        catch (NotFoundException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static String digest(OllamaContainer ollama, String model) {
+        String name = model.contains(":") ? model : model + ":latest";
+        List<Map<String, Object>> models = given().baseUri(ollama.getEndpoint())
+                .get("/api/tags")
+                .jsonPath()
+                .getList("models");
+        return models.stream()
+                .filter(it -> name.equals(it.get("name")))
+                .map(it -> (String) it.get("digest"))
+                .findFirst()
+                .orElseThrow(() -> new ContainerLaunchException(model + " is missing after pulling it"));
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static DockerImageName asOllamaImage(String image) {
+        return DockerImageName.parse(image).asCompatibleSubstituteFor("ollama/ollama");
+    }
+
+    private static DockerClient client() {
+        return DockerClientFactory.instance().client();
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.testcontainers.ollama;
+
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Reports how long it takes from starting Ollama until the first embedding is computed, when the model is pulled
+ * into a fresh container and when it is baked into the image. Set {@code -Dollama.model} to use another embedding
+ * model than {@code all-minilm}.
+ */
+class OllamaModelImagesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaModelImagesTest.class);
+
+    private static final String MODEL = System.getProperty("ollama.model", "all-minilm");
+
+    @BeforeAll
+    static void dockerIsAvailable() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+    }
+
+    private static Duration startToFirstEmbedding(OllamaContainer container, Consumer<OllamaContainer> prepare) {
+        long start = System.nanoTime();
+        try (OllamaContainer ollama = container) {
+            ollama.start();
+            prepare.accept(ollama);
+            List<Float> embedding = given().baseUri(ollama.getEndpoint())
+                    .contentType(ContentType.JSON)
+                    .body(Map.of("model", MODEL, "prompt", "Testcontainers"))
+                    .post("/api/embeddings")
+                    .jsonPath()
+                    .getList("embedding");
+            assertThat(embedding).isNotEmpty();
+            return Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+
+    private static void pull(OllamaContainer ollama) {
+        try {
+            assertThat(ollama.execInContainer("ollama", "pull", MODEL).getExitCode()).isZero();
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException("Could not pull " + MODEL, ex);
+        }
+    }
+
+    @Test
+    void reportsStartupToFirstEmbedding() {
+        // bake up front, so the baked run measures what every later run takes
+        OllamaModelImages.image(OllamaModelImages.BASE_IMAGE, List.of(MODEL));
+
+        Duration pulled = startToFirstEmbedding(new OllamaContainer(OllamaModelImages.BASE_IMAGE),
+                OllamaModelImagesTest::pull);
+        Duration baked = startToFirstEmbedding(OllamaModelImages.withModels(MODEL), ollama -> {
+        });
+
+        log.info("Start to first embedding with %s:%n  pulled %8d ms%n  baked  %8d ms".formatted(MODEL,
+                pulled.toMillis(), baked.toMillis()));
+    }
+
+    @Test
+    void keepsTheCurrentImageWhenEvicting() {
+        var image = OllamaModelImages.image(OllamaModelImages.BASE_IMAGE, List.of(MODEL));
+
+        List<String> removed = OllamaModelImages.evictStale(OllamaModelImages.BASE_IMAGE);
+
+        assertThat(removed).doesNotContain(image.asCanonicalNameString());
+        assertThat(OllamaModelImages.find(OllamaModelImages.BASE_IMAGE, List.of(MODEL))).contains(image);
+    }
+
+}
@@ -1,12 +1,21 @@
 package org.testcontainers.workshop;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.client.GraphQlClient;
 import org.springframework.graphql.client.HttpGraphQlClient;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @AutoConfiguration
 @EnableConfigurationProperties(GHProperties.class)
@@ -18,14 +27,68 @@ public class GHAutoConfiguration {
 		return new PropertiesGHConnectionDetails(properties);
 	}
 
+	@Bean(destroyMethod = "dispose")
+	@ConditionalOnMissingBean(name = "ghConnectionProvider")
+	ConnectionProvider ghConnectionProvider(GHProperties properties) {
+		var pool = properties.pool();
+		var metrics = pool.metrics() && ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", null);
+		return ConnectionProvider.builder("github")
+						.maxConnections(pool.maxConnections())
+						.pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+						.pendingAcquireTimeout(pool.pendingAcquireTimeout())
+						.maxIdleTime(pool.maxIdleTime())
+						.maxLifeTime(pool.maxLifeTime())
+						.evictInBackground(pool.evictInBackground())
+						.metrics(metrics)
+						.build();
+	}
+
 	@Bean
-	GraphQlClient ghGraphQlClient(GHConnectionDetails connectionDetails, WebClient.Builder webClientBuilder) {
+	WebClient ghWebClient(GHConnectionDetails connectionDetails, WebClient.Builder webClientBuilder,
+			ConnectionProvider ghConnectionProvider, GHRateLimiter ghRateLimiter, GHProperties properties) {
 		var githubBaseUrl = connectionDetails.url();
 		var authorizationHeader = "Bearer %s".formatted(connectionDetails.token());
-		return HttpGraphQlClient
-						.builder(webClientBuilder.build())
-						.url(githubBaseUrl + "/graphql")
-						.header("Authorization", authorizationHeader)
+		var pool = properties.pool();
+		// HTTP/2 is only negotiated over TLS, plain http URLs keep using HTTP/1.1
+		var protocols = pool.http2()
+						? new HttpProtocol[] { HttpProtocol.H2, HttpProtocol.HTTP11 }
+						: new HttpProtocol[] { HttpProtocol.HTTP11 };
+		var httpClient = HttpClient.create(ghConnectionProvider)
+						.protocol(protocols)
+						.compress(pool.compression());
+		return webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient))
+						.baseUrl(githubBaseUrl + "/graphql")
+						.defaultHeader("Authorization", authorizationHeader)
+						.filter(ghRateLimiter.filter())
 						.build();
 	}
+
+	@Bean
+	GraphQlClient ghGraphQlClient(WebClient ghWebClient) {
+		return HttpGraphQlClient.create(ghWebClient);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	GHStatsCache ghStatsCache(GHProperties properties) {
+		var cache = properties.cache();
+		return new GHStatsCache(cache.ttl(), cache.staleWhileRevalidate(), cache.maxSize());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	GHRateLimiter ghRateLimiter(GHProperties properties) {
+		return new GHRateLimiter(properties.rateLimit());
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterBinder.class)
+	static class GHMetricsConfiguration {
+
+		@Bean
+		MeterBinder ghStatsCacheMetrics(GHStatsCache ghStatsCache) {
+			return new GHStatsCacheMetrics(ghStatsCache);
+		}
+
+	}
 }
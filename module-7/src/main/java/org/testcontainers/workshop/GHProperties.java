@@ -1,8 +1,70 @@
 package org.testcontainers.workshop;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 @ConfigurationProperties(prefix = "github")
-public record GHProperties(String url, String token) {
+public record GHProperties(String url, String token, @DefaultValue Cache cache, @DefaultValue Batch batch,
+		@DefaultValue Pool pool, @DefaultValue RateLimit rateLimit) {
+
+	/**
+	 * How long {@link GHService#getStats} responses are cached.
+	 *
+	 * @param ttl how long a response is served without asking GitHub again
+	 * @param staleWhileRevalidate how long an expired response is still served while it is refreshed in the background
+	 * @param maxSize how many repositories are cached at most
+	 */
+	public record Cache(@DefaultValue("60s") Duration ttl, @DefaultValue("5m") Duration staleWhileRevalidate,
+			@DefaultValue("1000") int maxSize) {
+
+	}
+
+	/**
+	 * How {@link GHService#getStats(java.util.Collection)} splits repositories into requests.
+	 *
+	 * @param size how many repositories are queried with one request
+	 * @param concurrency how many requests are sent at the same time
+	 */
+	public record Batch(@DefaultValue("50") int size, @DefaultValue("4") int concurrency) {
+
+	}
+
+	/**
+	 * The HTTP connections to GitHub, shared by all requests.
+	 *
+	 * @param maxConnections how many connections are open at most
+	 * @param pendingAcquireMaxCount how many requests wait for a connection at most before new ones are rejected
+	 * @param pendingAcquireTimeout how long a request waits for a connection
+	 * @param maxIdleTime how long a connection stays open without being used
+	 * @param maxLifeTime how long a connection is used at most, so DNS changes are picked up
+	 * @param evictInBackground how often idle and expired connections are closed, or zero to only check on acquire
+	 * @param http2 whether to negotiate HTTP/2 over TLS, multiplexing requests over fewer connections
+	 * @param compression whether to ask for compressed responses
+	 * @param metrics whether to publish connection pool metrics to Micrometer
+	 */
+	public record Pool(@DefaultValue("50") int maxConnections, @DefaultValue("500") int pendingAcquireMaxCount,
+			@DefaultValue("45s") Duration pendingAcquireTimeout, @DefaultValue("30s") Duration maxIdleTime,
+			@DefaultValue("5m") Duration maxLifeTime, @DefaultValue("30s") Duration evictInBackground,
+			@DefaultValue("true") boolean http2, @DefaultValue("true") boolean compression,
+			@DefaultValue("true") boolean metrics) {
+
+	}
+
+	/**
+	 * How requests to GitHub are throttled to stay within its rate limits.
+	 *
+	 * @param pointsPerHour the rate limit assumed until GitHub reports one
+	 * @param burst how many points may be spent at once after a quiet period
+	 * @param maxConcurrency how many requests are sent at the same time
+	 * @param maxRetries how often a request failing because of rate limits, unavailable servers or the network is retried
+	 * @param minBackoff how long to wait before the first retry, doubling with every further one
+	 */
+	public record RateLimit(@DefaultValue("5000") int pointsPerHour, @DefaultValue("100") int burst,
+			@DefaultValue("10") int maxConcurrency, @DefaultValue("3") int maxRetries,
+			@DefaultValue("1s") Duration minBackoff) {
+
+	}
 
 }
@@ -0,0 +1,269 @@
+package org.testcontainers.workshop;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Keeps requests to GitHub within its rate limits instead of running into them.
+ * <p>
+ * Requests draw their cost in points from a token bucket and are limited in how many run at the same time. The bucket
+ * adapts to what GitHub reports on every response: the remaining points are spread evenly until the limit resets, and
+ * a {@code Retry-After} pauses all requests. Callers that have to wait are delayed rather than failed. Failures caused
+ * by rate limits, unavailable servers or the network are retried with jittered backoff, which is safe because the
+ * stats queries only read.
+ */
+public class GHRateLimiter {
+
+	private static final Logger logger = LoggerFactory.getLogger(GHRateLimiter.class);
+
+	static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+	static final String RESET_HEADER = "X-RateLimit-Reset";
+
+	private final int capacity;
+
+	private final int maxConcurrency;
+
+	private final int maxRetries;
+
+	private final Duration minBackoff;
+
+	private final Clock clock;
+
+	private final Queue<Sinks.Empty<Void>> waiters = new ArrayDeque<>();
+
+	private double tokens;
+
+	private final double defaultTokensPerMilli;
+
+	private double tokensPerMilli;
+
+	private long lastRefill;
+
+	private long limitResetsAt;
+
+	private long pausedUntil;
+
+	private int inFlight;
+
+	private final LongAdder throttled = new LongAdder();
+
+	private final LongAdder retries = new LongAdder();
+
+	public GHRateLimiter(GHProperties.RateLimit properties) {
+		this(properties, Clock.systemUTC());
+	}
+
+	GHRateLimiter(GHProperties.RateLimit properties, Clock clock) {
+		this.capacity = properties.burst();
+		this.maxConcurrency = properties.maxConcurrency();
+		this.maxRetries = properties.maxRetries();
+		this.minBackoff = properties.minBackoff();
+		this.clock = clock;
+		this.tokens = this.capacity;
+		this.defaultTokensPerMilli = properties.pointsPerHour() / (double) Duration.ofHours(1).toMillis();
+		this.tokensPerMilli = this.defaultTokensPerMilli;
+		this.lastRefill = clock.millis();
+	}
+
+	/**
+	 * Runs {@code request} once a slot and {@code cost} points are available, retrying it when that is safe. A cost
+	 * above the burst is capped at the burst, as the bucket never holds more points than that.
+	 */
+	public <T> Mono<T> limit(Supplier<Mono<T>> request, int cost) {
+		int points = Math.min(cost, this.capacity);
+		if (points < cost) {
+			logger.debug("Capping the cost of {} points of a GitHub request at the burst of {}", cost, this.capacity);
+		}
+		return Mono.usingWhen(acquire(points), permit -> Mono.defer(request), permit -> release())
+				.retryWhen(Retry.backoff(this.maxRetries, this.minBackoff)
+						.jitter(0.5)
+						.filter(GHRateLimiter::isRetryable)
+						.doBeforeRetry(signal -> {
+							this.retries.increment();
+							logger.debug("Retrying a GitHub request after {}", signal.failure().toString());
+						})
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+	}
+
+	private Mono<Boolean> acquire(int cost) {
+		return Mono.defer(() -> {
+			long now = this.clock.millis();
+			Mono<?> ready;
+			synchronized (this) {
+				refill(now);
+				if (now < this.pausedUntil) {
+					ready = Mono.delay(Duration.ofMillis(this.pausedUntil - now));
+				}
+				else if (this.inFlight >= this.maxConcurrency) {
+					Sinks.Empty<Void> waiter = Sinks.empty();
+					this.waiters.add(waiter);
+					ready = waiter.asMono().doOnCancel(() -> removeWaiter(waiter));
+				}
+				else if (this.tokens < cost) {
+					ready = Mono.delay(Duration.ofMillis((long) Math.ceil((cost - this.tokens) / this.tokensPerMilli)));
+				}
+				else {
+					this.tokens -= cost;
+					this.inFlight++;
+					return Mono.just(true);
+				}
+			}
+			this.throttled.increment();
+			return ready.then(acquire(cost));
+		});
+	}
+
+	private Mono<Void> release() {
+		return Mono.fromRunnable(() -> {
+			Sinks.Empty<Void> next;
+			synchronized (this) {
+				this.inFlight--;
+				next = this.waiters.poll();
+			}
+			if (next != null) {
+				next.tryEmitEmpty();
+			}
+		});
+	}
+
+	private synchronized void removeWaiter(Sinks.Empty<Void> waiter) {
+		this.waiters.remove(waiter);
+	}
+
+	private void refill(long now) {
+		if (this.limitResetsAt != 0 && now >= this.limitResetsAt) {
+			// GitHub granted a new quota
+			this.tokens = this.capacity;
+			this.tokensPerMilli = this.defaultTokensPerMilli;
+			this.limitResetsAt = 0;
+		}
+		this.tokens = Math.min(this.capacity, this.tokens + (now - this.lastRefill) * this.tokensPerMilli);
+		this.lastRefill = now;
+	}
+
+	/**
+	 * Adapts the limiter to the rate limit headers of every response.
+	 */
+	public ExchangeFilterFunction filter() {
+		return ExchangeFilterFunction.ofResponseProcessor(response -> {
+			update(response.statusCode().value(), response.headers().asHttpHeaders());
+			return Mono.just(response);
+		});
+	}
+
+	void update(int status, HttpHeaders headers) {
+		String remaining = headers.getFirst(REMAINING_HEADER);
+		String reset = headers.getFirst(RESET_HEADER);
+		if (remaining != null && reset != null) {
+			update(Long.parseLong(remaining), Instant.ofEpochSecond(Long.parseLong(reset)));
+		}
+		String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+		if (retryAfter != null && (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.FORBIDDEN.value())) {
+			Instant resumeAt = retryAfter(retryAfter, this.clock.instant());
+			if (resumeAt == null) {
+				logger.debug("Ignoring the unparseable {} header '{}'", HttpHeaders.RETRY_AFTER, retryAfter);
+				return;
+			}
+			synchronized (this) {
+				this.pausedUntil = Math.max(this.pausedUntil, resumeAt.toEpochMilli());
+			}
+		}
+	}
+
+	/**
+	 * When to resume after a {@code Retry-After} of either delay seconds or an HTTP-date, or {@code null} if it is
+	 * neither, in which case failed requests fall back to the regular backoff.
+	 */
+	static Instant retryAfter(String value, Instant now) {
+		try {
+			return now.plusSeconds(Long.parseLong(value.trim()));
+		}
+		catch (NumberFormatException ex) {
+			// not delay seconds, try an HTTP-date
+		}
+		try {
+			return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+		}
+		catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Spreads the {@code remaining} points evenly until the limit resets at {@code resetAt}, pausing all requests until
+	 * then once none are left. GitHub reports these as headers and in the {@code rateLimit} field of GraphQL responses.
+	 */
+	public void update(long remaining, Instant resetAt) {
+		long now = this.clock.millis();
+		long resetMillis = resetAt.toEpochMilli();
+		synchronized (this) {
+			refill(now);
+			this.tokens = Math.min(this.tokens, remaining);
+			if (resetMillis > now) {
+				this.tokensPerMilli = Math.max(remaining, 1) / (double) (resetMillis - now);
+				this.limitResetsAt = resetMillis;
+			}
+			if (remaining == 0) {
+				this.pausedUntil = Math.max(this.pausedUntil, resetMillis);
+			}
+		}
+	}
+
+	/**
+	 * Whether a request failed because of rate limits, unavailable servers or the network, looking through the
+	 * {@code GraphQlTransportException} the GraphQL client wraps these failures in.
+	 */
+	static boolean isRetryable(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof WebClientResponseException response) {
+				int status = response.getStatusCode().value();
+				return status == HttpStatus.TOO_MANY_REQUESTS.value()
+						|| status == HttpStatus.BAD_GATEWAY.value()
+						|| status == HttpStatus.SERVICE_UNAVAILABLE.value()
+						|| status == HttpStatus.GATEWAY_TIMEOUT.value()
+						// secondary rate limits are reported as 403 with a Retry-After header
+						|| (status == HttpStatus.FORBIDDEN.value() && response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER));
+			}
+			if (cause instanceof WebClientRequestException || cause instanceof IOException
+					|| cause instanceof TimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Requests that had to wait for a slot, for points or for a pause to end.
+	 */
+	public long getThrottled() {
+		return this.throttled.sum();
+	}
+
+	public long getRetries() {
+		return this.retries.sum();
+	}
+
+}
@@ -1,18 +1,80 @@
 package org.testcontainers.workshop;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.graphql.client.ClientGraphQlResponse;
+import org.springframework.graphql.client.ClientResponseField;
 import org.springframework.graphql.client.GraphQlClient;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class GHService {
 
+	private static final Logger logger = LoggerFactory.getLogger(GHService.class);
+
+	private static final String REPOSITORY_STATS_FRAGMENT =
+			"""
+			fragment RepositoryStats on Repository {
+				issues(states: OPEN) {
+					totalCount
+				}
+				pullRequests(states: OPEN) {
+					totalCount
+				}
+				stargazers {
+					totalCount
+				}
+				watchers {
+					totalCount
+				}
+				forks {
+					totalCount
+				}
+			}
+			""";
+
 	private final GraphQlClient ghGraphQlClient;
 
-	public GHService(GraphQlClient ghGraphQlClient) {
+	private final WebClient ghWebClient;
+
+	private final String statsDocument;
+
+	private final GHStatsCache ghStatsCache;
+
+	private final GHRateLimiter ghRateLimiter;
+
+	private final GHProperties.Batch batch;
+
+	/**
+	 * The points GitHub charged for the last batch, which the next one is expected to cost as well.
+	 */
+	private volatile int batchCost = 1;
+
+	public GHService(GraphQlClient ghGraphQlClient, WebClient ghWebClient, GHStatsCache ghStatsCache,
+			GHRateLimiter ghRateLimiter, GHProperties properties) throws IOException {
 		this.ghGraphQlClient = ghGraphQlClient;
+		this.ghWebClient = ghWebClient;
+		this.statsDocument = new ClassPathResource("graphql-documents/githubStats.graphql")
+				.getContentAsString(StandardCharsets.UTF_8);
+		this.ghStatsCache = ghStatsCache;
+		this.ghRateLimiter = ghRateLimiter;
+		this.batch = properties.batch();
 	}
 
 //	private static final String GRAPHQL_STATS_QUERY =
@@ -39,12 +101,105 @@ public class GHService {
 //			""";
 
 	public Mono<GitHubResponse> getStats(Map<String, Object> variables) {
-		return this.ghGraphQlClient.documentName("githubStats")
+		return this.ghStatsCache.get(cacheKey(variables), () -> fetchStats(variables));
+	}
+
+	/**
+	 * Gets the stats of a repository with the {@code githubStats} document like {@link #getStats(Map)}, but decodes
+	 * them from the response body as it streams in, rather than binding them through a map of the whole response.
+	 * The stats are not cached. Completes empty if GitHub does not know the repository.
+	 */
+	public Mono<GHStats> getFlatStats(Map<String, Object> variables) {
+		var request = Map.of("query", this.statsDocument, "operationName", "Stats", "variables", variables);
+		return this.ghRateLimiter.limit(() -> this.ghWebClient.post()
+						.contentType(MediaType.APPLICATION_JSON)
+						.bodyValue(request)
+						.retrieve()
+						.bodyToFlux(DataBuffer.class)
+						.as(GHStatsDecoder::decode), 1)
+				.mapNotNull(decoded -> {
+					GHStats stats = decoded.stats().get("repository");
+					if (stats == null) {
+						logger.warn("No stats for {}: {}", variables, decoded.errors());
+					}
+					return stats;
+				});
+	}
+
+	/**
+	 * Gets the stats of many repositories, packing up to {@code github.batch.size} of them into one aliased GraphQL
+	 * request and running up to {@code github.batch.concurrency} requests at a time. Repositories GitHub does not
+	 * know are left out. Requests are throttled by the {@link GHRateLimiter}, so large fan-outs slow down rather than
+	 * fail once the rate limit is close.
+	 */
+	public Flux<RepoStats> getStats(Collection<RepoRef> repositories) {
+		return Flux.fromIterable(repositories)
+				.buffer(this.batch.size())
+				.flatMapSequential(this::fetchBatch, this.batch.concurrency());
+	}
+
+	private Flux<RepoStats> fetchBatch(List<RepoRef> repositories) {
+		var variables = new LinkedHashMap<String, Object>();
+		var document = new StringBuilder("query BatchStats(");
+		var selections = new StringBuilder();
+		for (int i = 0; i < repositories.size(); i++) {
+			variables.put("owner" + i, repositories.get(i).owner());
+			variables.put("name" + i, repositories.get(i).name());
+			document.append(i == 0 ? "" : ", ").append("$owner%d: String!, $name%d: String!".formatted(i, i));
+			selections.append("\trepo%d: repository(owner: $owner%d, name: $name%d) {\n\t\t...RepositoryStats\n\t}\n"
+					.formatted(i, i, i));
+		}
+		selections.append("\trateLimit {\n\t\tcost\n\t\tremaining\n\t\tresetAt\n\t}\n");
+		document.append(") {\n").append(selections).append("}\n\n").append(REPOSITORY_STATS_FRAGMENT);
+
+		return this.ghRateLimiter.limit(() -> this.ghGraphQlClient.document(document.toString())
+						.operationName("BatchStats")
+						.variables(variables)
+						.execute(), this.batchCost)
+				.doOnNext(this::updateRateLimit)
+				.flatMapIterable(response -> toRepoStats(repositories, response));
+	}
+
+	private void updateRateLimit(ClientGraphQlResponse response) {
+		ClientResponseField field = response.field("rateLimit");
+		if (field.getValue() == null) {
+			return;
+		}
+		RateLimit rateLimit = field.toEntity(RateLimit.class);
+		this.batchCost = Math.max(rateLimit.cost(), 1);
+		this.ghRateLimiter.update(rateLimit.remaining(), rateLimit.resetAt());
+	}
+
+	private List<RepoStats> toRepoStats(List<RepoRef> repositories, ClientGraphQlResponse response) {
+		var result = new ArrayList<RepoStats>(repositories.size());
+		for (int i = 0; i < repositories.size(); i++) {
+			RepoRef repository = repositories.get(i);
+			ClientResponseField field = response.field("repo" + i);
+			if (field.getValue() == null) {
+				logger.warn("No stats for {}: {}", repository, field.getErrors());
+				continue;
+			}
+			GitHubResponse stats = field.toEntity(GitHubResponse.class);
+			this.ghStatsCache.put(cacheKey(repository.toVariables()), stats);
+			result.add(new RepoStats(repository, stats));
+		}
+		return result;
+	}
+
+	private static String cacheKey(Map<String, Object> variables) {
+		return new TreeMap<>(variables).toString();
+	}
+
+	private Mono<GitHubResponse> fetchStats(Map<String, Object> variables) {
+		return this.ghRateLimiter.limit(() -> this.ghGraphQlClient.documentName("githubStats")
 						.operationName("Stats")
 						.variables(variables)
 						.retrieve("repository")
-						.toEntity(GitHubResponse.class);
+						.toEntity(GitHubResponse.class), 1);
+
+	}
 
+	private record RateLimit(int cost, long remaining, Instant resetAt) {
 	}
 
 }
@@ -0,0 +1,17 @@
+package org.testcontainers.workshop;
+
+/**
+ * The stats of a repository as plain counts, decoded straight from the response by {@link GHStatsDecoder}.
+ */
+public record GHStats(int issues, int pullRequests, int stargazers, int watchers, int forks) {
+
+	public GitHubResponse toResponse() {
+		return new GitHubResponse(
+				new GitHubResponse.Issues(this.issues),
+				new GitHubResponse.PullRequests(this.pullRequests),
+				new GitHubResponse.Stargazers(this.stargazers),
+				new GitHubResponse.Watchers(this.watchers),
+				new GitHubResponse.Forks(this.forks));
+	}
+
+}
@@ -0,0 +1,151 @@
+package org.testcontainers.workshop;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches {@link GitHubResponse}s per key for a time to live, keeping at most a fixed number of entries and evicting
+ * the least recently used one first.
+ * <p>
+ * Concurrent callers asking for a key that is being loaded share the single in-flight request. Once an entry expired,
+ * it is still served for a grace period while it is revalidated in the background, so callers never wait for a
+ * refresh of a key they asked for recently.
+ */
+public class GHStatsCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(GHStatsCache.class);
+
+	private final Duration ttl;
+
+	private final Duration staleWhileRevalidate;
+
+	private final Clock clock;
+
+	private final Map<String, Entry> entries;
+
+	private final Map<String, Mono<GitHubResponse>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	private final LongAdder revalidations = new LongAdder();
+
+	public GHStatsCache(Duration ttl, Duration staleWhileRevalidate, int maxSize) {
+		this(ttl, staleWhileRevalidate, maxSize, Clock.systemUTC());
+	}
+
+	GHStatsCache(Duration ttl, Duration staleWhileRevalidate, int maxSize, Clock clock) {
+		this.ttl = ttl;
+		this.staleWhileRevalidate = staleWhileRevalidate;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Gets the response cached for {@code key}, or loads it with {@code loader}.
+	 */
+	public Mono<GitHubResponse> get(String key, Supplier<Mono<GitHubResponse>> loader) {
+		return Mono.defer(() -> {
+			Entry entry;
+			synchronized (this.entries) {
+				entry = this.entries.get(key);
+			}
+			long now = this.clock.millis();
+			if (entry != null && now < entry.freshUntil()) {
+				this.hits.increment();
+				return Mono.just(entry.response());
+			}
+			if (entry != null && now < entry.staleUntil()) {
+				this.hits.increment();
+				this.revalidations.increment();
+				load(key, loader).subscribe(
+						response -> {
+						},
+						ex -> logger.warn("Revalidating the cached stats for {} failed", key, ex));
+				return Mono.just(entry.response());
+			}
+			this.misses.increment();
+			return load(key, loader);
+		});
+	}
+
+	private Mono<GitHubResponse> load(String key, Supplier<Mono<GitHubResponse>> loader) {
+		var self = new AtomicReference<Mono<GitHubResponse>>();
+		Mono<GitHubResponse> request = Mono.defer(loader)
+				.doOnNext(response -> put(key, response))
+				.doFinally(signal -> this.inFlight.remove(key, self.get()))
+				.cache();
+		self.set(request);
+		Mono<GitHubResponse> existing = this.inFlight.putIfAbsent(key, request);
+		if (existing != null) {
+			this.coalesced.increment();
+			return existing;
+		}
+		return request;
+	}
+
+	/**
+	 * Caches a response that was fetched without going through {@link #get}.
+	 */
+	void put(String key, GitHubResponse response) {
+		long now = this.clock.millis();
+		long freshUntil = now + this.ttl.toMillis();
+		var entry = new Entry(response, freshUntil, freshUntil + this.staleWhileRevalidate.toMillis());
+		synchronized (this.entries) {
+			this.entries.put(key, entry);
+		}
+	}
+
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * Calls answered from the cache, including stale entries served while they are revalidated.
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Calls that had to wait for a response from GitHub.
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Loads that joined a request already in flight for the same key instead of sending their own.
+	 */
+	public long getCoalesced() {
+		return this.coalesced.sum();
+	}
+
+	public long getRevalidations() {
+		return this.revalidations.sum();
+	}
+
+	private record Entry(GitHubResponse response, long freshUntil, long staleUntil) {
+	}
+
+}
@@ -0,0 +1,35 @@
+package org.testcontainers.workshop;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports the counters of a {@link GHStatsCache} to Micrometer.
+ */
+class GHStatsCacheMetrics implements MeterBinder {
+
+	private final GHStatsCache cache;
+
+	GHStatsCacheMetrics(GHStatsCache cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("github.stats.cache.requests", this.cache, GHStatsCache::getHits)
+				.tag("result", "hit")
+				.register(registry);
+		FunctionCounter.builder("github.stats.cache.requests", this.cache, GHStatsCache::getMisses)
+				.tag("result", "miss")
+				.register(registry);
+		FunctionCounter.builder("github.stats.cache.coalesced", this.cache, GHStatsCache::getCoalesced)
+				.description("Loads that joined a request already in flight")
+				.register(registry);
+		FunctionCounter.builder("github.stats.cache.revalidations", this.cache, GHStatsCache::getRevalidations)
+				.register(registry);
+		Gauge.builder("github.stats.cache.size", this.cache, GHStatsCache::size).register(registry);
+	}
+
+}
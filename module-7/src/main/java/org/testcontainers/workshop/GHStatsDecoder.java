@@ -0,0 +1,170 @@
+package org.testcontainers.workshop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Decodes the repository stats of a GraphQL response while its body arrives, without building the response as a map
+ * first.
+ * <p>
+ * The buffers are fed to Jackson's non-blocking parser as they are, so the body is neither copied nor aggregated. Every
+ * object directly under {@code data} that has a {@code totalCount} for at least one of {@code issues},
+ * {@code pullRequests}, {@code stargazers}, {@code watchers} or {@code forks} is decoded into {@link GHStats}, keyed
+ * by its alias. Objects without any, such as {@code rateLimit}, and repositories that are {@code null} are left out.
+ * The {@code message} of every error is kept.
+ */
+final class GHStatsDecoder {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final int MAX_DEPTH = 8;
+
+	private final JsonParser parser;
+
+	private final ByteBufferFeeder feeder;
+
+	private final String[] names = new String[MAX_DEPTH];
+
+	private int depth;
+
+	private final int[] counts = new int[5];
+
+	private int seen;
+
+	private final Map<String, GHStats> stats = new HashMap<>(4);
+
+	private List<String> errors = List.of();
+
+	private GHStatsDecoder() throws IOException {
+		this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+		this.feeder = (ByteBufferFeeder) this.parser.getNonBlockingInputFeeder();
+	}
+
+	/**
+	 * Decodes {@code body}, releasing every buffer once it was parsed.
+	 */
+	static Mono<Decoded> decode(Flux<DataBuffer> body) {
+		return Mono.defer(() -> {
+			GHStatsDecoder decoder;
+			try {
+				decoder = new GHStatsDecoder();
+			}
+			catch (IOException ex) {
+				return Mono.error(ex);
+			}
+			return body.<Decoded>handle((buffer, sink) -> {
+				try {
+					decoder.feed(buffer);
+				}
+				catch (IOException ex) {
+					sink.error(ex);
+				}
+				finally {
+					DataBufferUtils.release(buffer);
+				}
+			})
+					.then(Mono.fromCallable(decoder::finish))
+					.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+		});
+	}
+
+	private void feed(DataBuffer buffer) throws IOException {
+		try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+			while (iterator.hasNext()) {
+				ByteBuffer byteBuffer = iterator.next();
+				this.feeder.feedInput(byteBuffer);
+				parse();
+			}
+		}
+	}
+
+	private Decoded finish() throws IOException {
+		this.feeder.endOfInput();
+		parse();
+		this.parser.close();
+		return new Decoded(this.stats, this.errors);
+	}
+
+	private void parse() throws IOException {
+		JsonToken token;
+		while ((token = this.parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+			switch (token) {
+				case FIELD_NAME -> {
+					if (this.depth < MAX_DEPTH) {
+						this.names[this.depth] = this.parser.currentName();
+					}
+				}
+				case START_OBJECT, START_ARRAY -> {
+					this.depth++;
+					if (this.depth == 3 && inData()) {
+						Arrays.fill(this.counts, 0);
+						this.seen = 0;
+					}
+				}
+				case END_OBJECT, END_ARRAY -> {
+					if (this.depth == 3 && inData() && this.seen != 0) {
+						this.stats.put(this.names[2], new GHStats(this.counts[0], this.counts[1], this.counts[2],
+								this.counts[3], this.counts[4]));
+					}
+					this.depth--;
+				}
+				case VALUE_NUMBER_INT -> {
+					if (this.depth == 4 && inData() && "totalCount".equals(this.names[4])) {
+						int index = countIndex(this.names[3]);
+						if (index >= 0) {
+							this.counts[index] = this.parser.getIntValue();
+							this.seen |= 1 << index;
+						}
+					}
+				}
+				case VALUE_STRING -> {
+					if (this.depth == 3 && "errors".equals(this.names[1]) && "message".equals(this.names[3])) {
+						if (this.errors.isEmpty()) {
+							this.errors = new ArrayList<>(1);
+						}
+						this.errors.add(this.parser.getText());
+					}
+				}
+				default -> {
+				}
+			}
+		}
+	}
+
+	private boolean inData() {
+		return "data".equals(this.names[1]);
+	}
+
+	private static int countIndex(String name) {
+		return switch (name) {
+			case "issues" -> 0;
+			case "pullRequests" -> 1;
+			case "stargazers" -> 2;
+			case "watchers" -> 3;
+			case "forks" -> 4;
+			default -> -1;
+		};
+	}
+
+	/**
+	 * The stats per alias under {@code data}, and the messages of all errors.
+	 */
+	record Decoded(Map<String, GHStats> stats, List<String> errors) {
+	}
+
+}
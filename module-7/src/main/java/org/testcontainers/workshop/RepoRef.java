@@ -0,0 +1,19 @@
+package org.testcontainers.workshop;
+
+import java.util.Map;
+
+/**
+ * Identifies a GitHub repository.
+ */
+public record RepoRef(String owner, String name) {
+
+	Map<String, Object> toVariables() {
+		return Map.of("owner", this.owner, "name", this.name);
+	}
+
+	@Override
+	public String toString() {
+		return this.owner + "/" + this.name;
+	}
+
+}
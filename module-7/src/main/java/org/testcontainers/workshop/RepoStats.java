@@ -0,0 +1,8 @@
+package org.testcontainers.workshop;
+
+/**
+ * The stats of one repository of a batched {@link GHService#getStats(java.util.Collection)} call.
+ */
+public record RepoStats(RepoRef repository, GitHubResponse stats) {
+
+}
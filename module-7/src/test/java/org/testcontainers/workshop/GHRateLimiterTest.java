@@ -0,0 +1,196 @@
+package org.testcontainers.workshop;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GHRateLimiterTest {
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private static GHRateLimiter limiter(int pointsPerHour, int burst, int maxConcurrency) {
+		return new GHRateLimiter(new GHProperties.RateLimit(pointsPerHour, burst, maxConcurrency, 3, Duration.ofSeconds(1)),
+				new SchedulerClock());
+	}
+
+	private Mono<String> request() {
+		return Mono.fromCallable(() -> "stats #" + this.requests.incrementAndGet());
+	}
+
+	private static WebClientResponseException failure(int status, HttpHeaders headers) {
+		return WebClientResponseException.create(status, "", headers, new byte[0], null);
+	}
+
+	@Test
+	void limitsConcurrentRequests() {
+		var limiter = limiter(3600, 10, 1);
+		Sinks.One<String> first = Sinks.one();
+
+		StepVerifier.create(Mono.zip(limiter.limit(() -> {
+			this.requests.incrementAndGet();
+			return first.asMono();
+		}, 1), limiter.limit(this::request, 1)))
+				.then(() -> assertThat(this.requests).hasValue(1))
+				.then(() -> first.tryEmitValue("stats #1"))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertThat(this.requests).hasValue(2);
+		assertThat(limiter.getThrottled()).isEqualTo(1);
+	}
+
+	@Test
+	void waitsForPointsToBeRefilled() {
+		StepVerifier.withVirtualTime(() -> {
+			var limiter = limiter(3600, 2, 10);
+			return Mono.zip(limiter.limit(this::request, 2), limiter.limit(this::request, 2));
+		})
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(1999))
+				.thenAwait(Duration.ofMillis(1))
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	@Test
+	void capsCostsAboveTheBurst() {
+		StepVerifier.withVirtualTime(() -> {
+			var limiter = limiter(3600, 2, 10);
+			return Mono.zip(limiter.limit(this::request, 5), limiter.limit(this::request, 5));
+		})
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(1999))
+				.thenAwait(Duration.ofMillis(1))
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	@Test
+	void spreadsTheRemainingPointsUntilTheLimitResets() {
+		StepVerifier.withVirtualTime(() -> {
+			var limiter = limiter(3600, 10, 10);
+			limiter.update(1, Instant.ofEpochMilli(Schedulers.parallel().now(TimeUnit.MILLISECONDS)).plusSeconds(60));
+			return Mono.zip(limiter.limit(this::request, 1), limiter.limit(this::request, 1));
+		})
+				.expectSubscription()
+				.expectNoEvent(Duration.ofSeconds(59))
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNextCount(1)
+				.verifyComplete();
+	}
+
+	@Test
+	void pausesAfterRetryAfter() {
+		StepVerifier.withVirtualTime(() -> {
+			var limiter = limiter(3600, 10, 10);
+			var headers = new HttpHeaders();
+			headers.set(HttpHeaders.RETRY_AFTER, "30");
+			limiter.update(429, headers);
+			return limiter.limit(this::request, 1);
+		})
+				.expectSubscription()
+				.expectNoEvent(Duration.ofSeconds(29))
+				.thenAwait(Duration.ofSeconds(1))
+				.expectNext("stats #1")
+				.verifyComplete();
+	}
+
+	@Test
+	void readsRetryAfterAsSecondsOrHttpDate() {
+		Instant now = Instant.parse("2015-10-21T07:28:00Z");
+
+		assertThat(GHRateLimiter.retryAfter("120", now)).isEqualTo(now.plusSeconds(120));
+		assertThat(GHRateLimiter.retryAfter("Wed, 21 Oct 2015 07:30:00 GMT", now)).isEqualTo(now.plusSeconds(120));
+		assertThat(GHRateLimiter.retryAfter("soon", now)).isNull();
+	}
+
+	@Test
+	void ignoresUnparseableRetryAfter() {
+		StepVerifier.withVirtualTime(() -> {
+			var limiter = limiter(3600, 10, 10);
+			var headers = new HttpHeaders();
+			headers.set(HttpHeaders.RETRY_AFTER, "soon");
+			limiter.update(429, headers);
+			return limiter.limit(this::request, 1);
+		})
+				.expectSubscription()
+				.expectNext("stats #1")
+				.verifyComplete();
+	}
+
+	@Test
+	void retriesUnavailableServers() {
+		StepVerifier.withVirtualTime(() -> limiter(3600, 10, 10).limit(() -> this.requests.incrementAndGet() < 3
+				? Mono.error(failure(503, HttpHeaders.EMPTY))
+				: Mono.just("stats"), 1))
+				.thenAwait(Duration.ofMinutes(1))
+				.expectNext("stats")
+				.verifyComplete();
+
+		assertThat(this.requests).hasValue(3);
+	}
+
+	@Test
+	void doesNotRetryClientErrors() {
+		StepVerifier.create(limiter(3600, 10, 10).limit(() -> {
+			this.requests.incrementAndGet();
+			return Mono.error(failure(401, HttpHeaders.EMPTY));
+		}, 1)).verifyError(WebClientResponseException.Unauthorized.class);
+
+		assertThat(this.requests).hasValue(1);
+	}
+
+	@Test
+	void retriesSecondaryRateLimits() {
+		var headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "60");
+
+		assertThat(GHRateLimiter.isRetryable(failure(403, headers))).isTrue();
+		assertThat(GHRateLimiter.isRetryable(failure(403, HttpHeaders.EMPTY))).isFalse();
+		assertThat(GHRateLimiter.isRetryable(failure(429, HttpHeaders.EMPTY))).isTrue();
+	}
+
+	@Test
+	void retriesWrappedFailures() {
+		assertThat(GHRateLimiter.isRetryable(new IllegalStateException(failure(503, HttpHeaders.EMPTY)))).isTrue();
+		assertThat(GHRateLimiter.isRetryable(new IllegalStateException(failure(400, HttpHeaders.EMPTY)))).isFalse();
+	}
+
+	/**
+	 * Follows the time of the parallel scheduler, which {@link StepVerifier#withVirtualTime} replaces.
+	 */
+	private static final class SchedulerClock extends Clock {
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(Schedulers.parallel().now(TimeUnit.MILLISECONDS));
+		}
+
+	}
+
+}
@@ -0,0 +1,170 @@
+package org.testcontainers.workshop;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.wiremock.integrations.testcontainers.WireMockContainer;
+import reactor.core.publisher.Mono;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link GHService} at a fixed rate against WireMock, which answers every stats request after the delay of
+ * the chosen {@link Profile}, or fails it with the profile's fault. Every request asks for a different repository, so
+ * none is answered from the cache. Runs with a delay profile must not fail any request, runs with a fault profile
+ * must fail every one of them, as faults are not retried there.
+ * <p>
+ * Only runs with {@code -Dload=true}. See {@link LoadHarness.Settings} for the other {@code load.*} properties, plus
+ * {@code load.profile} and {@code load.delay} in milliseconds.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class GHServiceLoadTest {
+
+	private static final Profile PROFILE = Profile.valueOf(
+			System.getProperty("load.profile", "baseline").toUpperCase(Locale.ROOT).replace('-', '_'));
+
+	private static final Duration DELAY = Duration.ofMillis(Long.getLong("load.delay", 50));
+
+	@Container
+	static WireMockContainer wireMock = new WireMockContainer("wiremock/wiremock:3.2.0-alpine")
+			.withMappingFromJSON("load", PROFILE.mapping(DELAY))
+			.withFileFromResource("testcontainers-java.json", TestcontainersWiremockExampleApplicationTests.class, "testcontainers-java.json")
+			// delayed responses must not hold on to a Jetty thread, and recording every request would fill the heap
+			.withCliArg("--async-response-enabled=true")
+			.withCliArg("--container-threads=64")
+			.withCliArg("--no-request-journal");
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		int concurrency = LoadHarness.Settings.fromSystemProperties("", "").concurrency();
+		registry.add("github.url", wireMock::getBaseUrl);
+		registry.add("github.token", () -> "test");
+		registry.add("github.pool.max-connections", () -> concurrency);
+		registry.add("github.rate-limit.points-per-hour", () -> Integer.MAX_VALUE);
+		registry.add("github.rate-limit.burst", () -> Integer.MAX_VALUE);
+		registry.add("github.rate-limit.max-concurrency", () -> concurrency);
+		if (PROFILE.fault) {
+			// otherwise the backoff of the retries would hold every slot and the run would not keep its rate
+			registry.add("github.rate-limit.max-retries", () -> 0);
+		}
+	}
+
+	@Autowired
+	private GHService ghService;
+
+	private static Map<String, Object> repository(long index) {
+		return Map.of("owner", "testcontainers", "name", "repository-" + index);
+	}
+
+	private static void run(String name, LongFunction<Mono<?>> request) {
+		// the rendered mapping holds the delay, so runs with another delay are not compared
+		var settings = LoadHarness.Settings.fromSystemProperties(name + "-" + PROFILE.name().toLowerCase(Locale.ROOT),
+				PROFILE.mapping(DELAY));
+		var result = new LoadHarness(settings).run(request);
+
+		if (PROFILE.fault) {
+			assertThat(result.errors()).isEqualTo(settings.measuredRequests());
+			assertThat(result.histogram().getTotalCount()).isZero();
+		}
+		else {
+			assertThat(result.errors()).isZero();
+		}
+	}
+
+	@Test
+	void stats() {
+		run("stats", index -> this.ghService.getStats(repository(index)));
+	}
+
+	@Test
+	void flatStats() {
+		run("flat-stats", index -> this.ghService.getFlatStats(repository(index)));
+	}
+
+	/**
+	 * How WireMock delays its responses, or fails them.
+	 */
+	enum Profile {
+
+		/**
+		 * Answers right away.
+		 */
+		BASELINE(""),
+
+		/**
+		 * Answers after the delay.
+		 */
+		FIXED_DELAY("""
+				"fixedDelayMilliseconds": %d,"""),
+
+		/**
+		 * Sends the body in 5 chunks spread over the delay.
+		 */
+		DRIBBLE("""
+				"chunkedDribbleDelay": { "numberOfChunks": 5, "totalDuration": %d },"""),
+
+		/**
+		 * Answers after a random delay whose median is the delay, with a long tail.
+		 */
+		LOGNORMAL("""
+				"delayDistribution": { "type": "lognormal", "median": %d, "sigma": 0.5 },"""),
+
+		/**
+		 * Resets the connection instead of answering.
+		 */
+		CONNECTION_RESET("""
+				"fault": "CONNECTION_RESET_BY_PEER",""", true),
+
+		/**
+		 * Closes the connection without sending anything.
+		 */
+		EMPTY_RESPONSE("""
+				"fault": "EMPTY_RESPONSE",""", true);
+
+		private final String response;
+
+		private final boolean fault;
+
+		Profile(String response) {
+			this(response, false);
+		}
+
+		Profile(String response, boolean fault) {
+			this.response = response;
+			this.fault = fault;
+		}
+
+		String mapping(Duration delay) {
+			return """
+					{
+						"request": {
+							"method": "POST",
+							"url": "/graphql",
+							"bodyPatterns": [{ "matchesJsonPath": "$.variables.owner" }]
+						},
+						"response": {
+							%s
+							"status": 200,
+							"bodyFileName": "testcontainers-java.json",
+							"headers": { "Content-Type": "application/json" }
+						}
+					}
+					""".formatted(this.response.formatted(delay.toMillis()));
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+package org.testcontainers.workshop;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GHStatsCacheTest {
+
+	private static final GitHubResponse STATS = new GitHubResponse(
+			new GitHubResponse.Issues(385),
+			new GitHubResponse.PullRequests(90),
+			new GitHubResponse.Stargazers(6560),
+			new GitHubResponse.Watchers(142),
+			new GitHubResponse.Forks(1295));
+
+	private final MutableClock clock = new MutableClock();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final GHStatsCache cache = new GHStatsCache(Duration.ofSeconds(60), Duration.ofMinutes(5), 2, this.clock);
+
+	private Mono<GitHubResponse> fetch() {
+		return Mono.fromCallable(() -> {
+			this.requests.incrementAndGet();
+			return STATS;
+		});
+	}
+
+	@Test
+	void servesFreshEntriesFromTheCache() {
+		StepVerifier.create(this.cache.get("testcontainers/testcontainers-java", this::fetch)).expectNext(STATS).verifyComplete();
+		StepVerifier.create(this.cache.get("testcontainers/testcontainers-java", this::fetch)).expectNext(STATS).verifyComplete();
+
+		assertThat(this.requests).hasValue(1);
+		assertThat(this.cache.getHits()).isEqualTo(1);
+		assertThat(this.cache.getMisses()).isEqualTo(1);
+	}
+
+	@Test
+	void coalescesConcurrentLoadsOfTheSameKey() {
+		Sinks.One<GitHubResponse> response = Sinks.one();
+		var first = this.cache.get("testcontainers/testcontainers-java", () -> {
+			this.requests.incrementAndGet();
+			return response.asMono();
+		});
+		var second = this.cache.get("testcontainers/testcontainers-java", this::fetch);
+
+		StepVerifier.create(Mono.zip(first, second))
+				.then(() -> response.tryEmitValue(STATS))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertThat(this.requests).hasValue(1);
+		assertThat(this.cache.getCoalesced()).isEqualTo(1);
+	}
+
+	@Test
+	void servesStaleEntriesWhileRevalidating() {
+		this.cache.get("testcontainers/testcontainers-java", this::fetch).block();
+
+		this.clock.advance(Duration.ofSeconds(90));
+		StepVerifier.create(this.cache.get("testcontainers/testcontainers-java", this::fetch)).expectNext(STATS).verifyComplete();
+		assertThat(this.requests).hasValue(2);
+		assertThat(this.cache.getRevalidations()).isEqualTo(1);
+
+		this.clock.advance(Duration.ofMinutes(10));
+		this.cache.get("testcontainers/testcontainers-java", this::fetch).block();
+		assertThat(this.cache.getMisses()).isEqualTo(2);
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntry() {
+		this.cache.get("a", this::fetch).block();
+		this.cache.get("b", this::fetch).block();
+		this.cache.get("a", this::fetch).block();
+		this.cache.get("c", this::fetch).block();
+
+		this.cache.get("a", this::fetch).block();
+		this.cache.get("b", this::fetch).block();
+
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.requests).hasValue(4);
+	}
+
+	@Test
+	void doesNotCacheFailures() {
+		StepVerifier.create(this.cache.get("a", () -> Mono.error(new IllegalStateException("rate limited"))))
+				.verifyError(IllegalStateException.class);
+		StepVerifier.create(this.cache.get("a", this::fetch)).expectNext(STATS).verifyComplete();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+		void advance(Duration duration) {
+			this.now = this.now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.now;
+		}
+
+	}
+
+}
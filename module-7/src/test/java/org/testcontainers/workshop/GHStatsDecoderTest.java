@@ -0,0 +1,85 @@
+package org.testcontainers.workshop;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GHStatsDecoderTest {
+
+	private static final String BATCH = """
+			{
+				"errors": [
+					{
+						"type": "NOT_FOUND",
+						"path": ["repo1"],
+						"locations": [{"line": 5, "column": 2}],
+						"message": "Could not resolve to a Repository with the name 'testcontainers/does-not-exist'."
+					}
+				],
+				"data": {
+					"repo0": {
+						"issues": {"totalCount": 385},
+						"pullRequests": {"totalCount": 90},
+						"stargazers": {"totalCount": 6560},
+						"watchers": {"totalCount": 142},
+						"forks": {"totalCount": 1295}
+					},
+					"repo1": null,
+					"repo2": {
+						"forks": {"totalCount": 7},
+						"issues": {"totalCount": 1}
+					},
+					"rateLimit": {"cost": 1, "remaining": 4999, "resetAt": "2024-05-01T11:00:00Z"}
+				}
+			}
+			""";
+
+	private static Flux<DataBuffer> chunked(String json, int chunkSize) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		var chunks = new ArrayList<DataBuffer>();
+		for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+			int length = Math.min(chunkSize, bytes.length - offset);
+			chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+		}
+		return Flux.fromIterable(chunks);
+	}
+
+	@Test
+	void decodesStatsPerAlias() {
+		StepVerifier.create(GHStatsDecoder.decode(chunked(BATCH, BATCH.length())))
+				.assertNext(decoded -> {
+					assertThat(decoded.stats()).containsOnlyKeys("repo0", "repo2");
+					assertThat(decoded.stats().get("repo0")).isEqualTo(new GHStats(385, 90, 6560, 142, 1295));
+					assertThat(decoded.stats().get("repo2")).isEqualTo(new GHStats(1, 0, 0, 0, 7));
+					assertThat(decoded.errors()).containsExactly(
+							"Could not resolve to a Repository with the name 'testcontainers/does-not-exist'.");
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void decodesBodiesSplitAnywhere() {
+		var expected = GHStatsDecoder.decode(chunked(BATCH, BATCH.length())).block();
+		for (int chunkSize : List.of(1, 2, 3, 7, 64)) {
+			assertThat(GHStatsDecoder.decode(chunked(BATCH, chunkSize)).block()).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void failsOnMalformedBodies() {
+		StepVerifier.create(GHStatsDecoder.decode(chunked("{\"data\": {\"repository\": ]", 4)))
+				.expectError()
+				.verify();
+	}
+
+}
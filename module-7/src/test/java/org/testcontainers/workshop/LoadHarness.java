@@ -0,0 +1,216 @@
+package org.testcontainers.workshop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends requests at a fixed rate, no matter how fast they complete, and records their latency in an HdrHistogram.
+ * <p>
+ * Latency is measured from when a request was due rather than from when it was sent, so requests queued behind slow
+ * ones count as slow too instead of being left out. Requests sent during the warmup are not recorded. Every run is
+ * written as JSON to the results directory, including the full histogram, and compared with the previous run of the
+ * same name.
+ */
+final class LoadHarness {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoadHarness.class);
+
+	private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.enable(SerializationFeature.INDENT_OUTPUT)
+			.disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+	private final Settings settings;
+
+	LoadHarness(Settings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Calls {@code request} with the index of every request and records how long the returned {@link Mono} takes to
+	 * complete. Failed requests are counted, but not recorded.
+	 */
+	Result run(LongFunction<Mono<?>> request) {
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / this.settings.rate();
+		long warmupRequests = this.settings.warmup().toNanos() / intervalNanos;
+		long totalRequests = warmupRequests + this.settings.measuredRequests();
+		Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+		var errors = new AtomicLong();
+		var lastCompletion = new AtomicLong();
+		var start = new AtomicLong();
+
+		Flux.interval(Duration.ofNanos(intervalNanos))
+				.take(totalRequests)
+				.onBackpressureBuffer()
+				.flatMap(index -> {
+					if (index == 0) {
+						// the schedule starts with the first tick, not when it was subscribed to
+						start.set(System.nanoTime() - intervalNanos);
+					}
+					long due = start.get() + (index + 1) * intervalNanos;
+					return request.apply(index)
+							.then(Mono.fromRunnable(() -> {
+								long now = System.nanoTime();
+								if (index >= warmupRequests) {
+									histogram.recordValue(Math.min(now - due, histogram.getHighestTrackableValue()));
+									lastCompletion.accumulateAndGet(now, Math::max);
+								}
+							}))
+							.onErrorResume(ex -> {
+								if (index >= warmupRequests) {
+									errors.incrementAndGet();
+								}
+								logger.debug("Request {} failed", index, ex);
+								return Mono.empty();
+							});
+				}, this.settings.concurrency())
+				.blockLast(this.settings.warmup().plus(this.settings.duration()).multipliedBy(2).plusMinutes(1));
+
+		long measuredFrom = start.get() + (warmupRequests + 1) * intervalNanos;
+		double seconds = Math.max(lastCompletion.get() - measuredFrom, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+		var result = new Result(this.settings, histogram, histogram.getTotalCount() / seconds, errors.get());
+		report(result);
+		return result;
+	}
+
+	private void report(Result result) {
+		logger.info("{}", result);
+		try {
+			Path directory = Path.of(this.settings.resultsDirectory());
+			Files.createDirectories(directory);
+			Optional<JsonNode> previous = previousResult(directory);
+			String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+			Path file = directory.resolve(this.settings.name() + "-" + timestamp + ".json");
+			objectMapper.writeValue(file.toFile(), result.toJson());
+			logger.info("Wrote {}", file);
+			previous.ifPresent(json -> compare(json, result));
+		}
+		catch (IOException ex) {
+			logger.warn("Could not write the results of {}", this.settings.name(), ex);
+		}
+	}
+
+	private Optional<JsonNode> previousResult(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			Optional<Path> latest = files
+					.filter(file -> file.getFileName().toString().matches(this.settings.name() + "-\\d{8}-\\d{6}\\.json"))
+					.max(Comparator.comparing(Path::getFileName));
+			return latest.isPresent() ? Optional.of(objectMapper.readTree(latest.get().toFile())) : Optional.empty();
+		}
+	}
+
+	private static void compare(JsonNode previous, Result result) {
+		if (!previous.path("settings").equals(objectMapper.valueToTree(result.settings()))) {
+			logger.info("The previous run of {} used different settings, not comparing", result.settings().name());
+			return;
+		}
+		var current = result.toJson();
+		var changes = new StringBuilder();
+		appendChange(changes, "throughput", previous.path("throughput").asDouble(), result.throughput());
+		current.percentilesMillis().forEach((percentile, millis) -> appendChange(changes, percentile,
+				previous.path("percentilesMillis").path(percentile).asDouble(), millis));
+		logger.info("Compared with the previous run of {}:{}", result.settings().name(), changes);
+	}
+
+	private static void appendChange(StringBuilder changes, String name, double previous, double current) {
+		changes.append("%n  %-10s %10.2f -> %10.2f (%+.1f%%)".formatted(name, previous, current,
+				previous == 0 ? 0 : (current - previous) / previous * 100));
+	}
+
+	/**
+	 * How a load test runs, read from {@code load.*} system properties.
+	 *
+	 * @param name the name results are stored and compared under
+	 * @param rate how many requests are sent per second
+	 * @param warmup how long requests are sent before they are recorded
+	 * @param duration how long requests are recorded
+	 * @param concurrency how many requests are in flight at most, further ones wait for a slot
+	 * @param resultsDirectory where results are written to
+	 * @param server how the server under load answers, e.g. its stub mapping, so runs against a server that
+	 * answers differently are not compared
+	 */
+	record Settings(String name, int rate, Duration warmup, Duration duration, int concurrency,
+			String resultsDirectory, String server) {
+
+		static Settings fromSystemProperties(String name, String server) {
+			return new Settings(name,
+					Integer.getInteger("load.rate", 1000),
+					Duration.ofSeconds(Long.getLong("load.warmup", 10)),
+					Duration.ofSeconds(Long.getLong("load.duration", 30)),
+					Integer.getInteger("load.concurrency", 256),
+					System.getProperty("load.results", "load-results"),
+					server);
+		}
+
+		/**
+		 * How many requests are sent after the warmup, and so either recorded or counted as errors.
+		 */
+		long measuredRequests() {
+			return this.duration.toNanos() / (TimeUnit.SECONDS.toNanos(1) / this.rate);
+		}
+
+	}
+
+	record Result(Settings settings, Histogram histogram, double throughput, long errors) {
+
+		Json toJson() {
+			var percentiles = new LinkedHashMap<String, Double>();
+			for (int i = 0; i < PERCENTILES.length; i++) {
+				percentiles.put(PERCENTILE_NAMES[i], millis(this.histogram.getValueAtPercentile(PERCENTILES[i])));
+			}
+			percentiles.put("max", millis(this.histogram.getMaxValue()));
+			ByteBuffer buffer = ByteBuffer.allocate(this.histogram.getNeededByteBufferCapacity());
+			int length = this.histogram.encodeIntoCompressedByteBuffer(buffer);
+			return new Json(this.settings, this.histogram.getTotalCount(), this.errors, this.throughput, percentiles,
+					Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+		}
+
+		private static double millis(long nanos) {
+			return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+		@Override
+		public String toString() {
+			return "%s: %d requests, %d errors, %.1f requests/s, %s ms".formatted(this.settings.name(),
+					this.histogram.getTotalCount(), this.errors, this.throughput, toJson().percentilesMillis());
+		}
+
+	}
+
+	/**
+	 * A result as written to the results directory. The histogram is compressed and Base64 encoded, so it can be
+	 * decoded with {@link Histogram#decodeFromCompressedByteBuffer} to compare runs in more detail.
+	 */
+	record Json(Settings settings, long requests, long errors, double throughput, Map<String, Double> percentilesMillis,
+			String histogram) {
+	}
+
+}
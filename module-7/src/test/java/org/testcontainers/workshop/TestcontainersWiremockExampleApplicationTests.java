@@ -1,6 +1,5 @@
 package org.testcontainers.workshop;
 
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
@@ -25,12 +24,7 @@ class TestcontainersWiremockExampleApplicationTests {
     private static final Logger LOGGER = LoggerFactory.getLogger("wiremock");
 
     @Container
-    static WireMockContainer wireMock = new WireMockContainer("wiremock/wiremock:3.2.0-alpine")
-            .withMapping("graphql", TestcontainersWiremockExampleApplicationTests.class, "graphql-resource.json")
-            .withExtensions("graphql",
-                    List.of("io.github.nilwurtz.GraphqlBodyMatcher"),
-                    List.of(Paths.get("target", "test-wiremock-extension", "wiremock-graphql-extension-0.7.1-jar-with-dependencies.jar").toFile()))
-            .withFileFromResource("testcontainers-java.json", TestcontainersWiremockExampleApplicationTests.class, "testcontainers-java.json")
+    static WireMockContainer wireMock = WireMockImages.graphql()
             .withLogConsumer(new Slf4jLogConsumer(LOGGER));
 
     @DynamicPropertySource
@@ -55,4 +49,27 @@ class TestcontainersWiremockExampleApplicationTests {
                 .verifyComplete();
     }
 
+    @Test
+    void flatStats() {
+        var variables = Map.<String, Object>of("owner", "testcontainers", "name", "testcontainers-java");
+        StepVerifier.create(this.ghService.getFlatStats(variables))
+                .expectNext(new GHStats(385, 90, 6560, 142, 1295))
+                .verifyComplete();
+    }
+
+    @Test
+    void batchedStats() {
+        var repositories = List.of(
+                new RepoRef("testcontainers", "testcontainers-java"),
+                new RepoRef("testcontainers", "does-not-exist"));
+        StepVerifier.create(this.ghService.getStats(repositories))
+                .expectNext(new RepoStats(repositories.get(0), new GitHubResponse(
+                        new GitHubResponse.Issues(385),
+                        new GitHubResponse.PullRequests(90),
+                        new GitHubResponse.Stargazers(6560),
+                        new GitHubResponse.Watchers(142),
+                        new GitHubResponse.Forks(1295))))
+                .verifyComplete();
+    }
+
 }
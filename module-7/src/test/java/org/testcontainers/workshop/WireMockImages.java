@@ -0,0 +1,185 @@
+package org.testcontainers.workshop;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.DockerImageName;
+import org.wiremock.integrations.testcontainers.WireMockContainer;
+
+/**
+ * Creates {@link WireMockContainer}s from an image that already contains the GraphQL extension, mappings and files
+ * of the tests, instead of copying them into every container.
+ * <p>
+ * The image is tagged with a hash of the base image and everything baked into it, so it is only built once for a
+ * given set of mappings and then taken from the local image cache, across test classes and runs. It can be baked
+ * ahead of the tests, as the {@code bake-wiremock} profile does, for example in a CI step that caches images.
+ */
+public final class WireMockImages {
+
+	private static final Logger logger = LoggerFactory.getLogger(WireMockImages.class);
+
+	static final String BASE_IMAGE = "wiremock/wiremock:3.2.0-alpine";
+
+	static final String REPOSITORY = "testcontainers-workshop/wiremock-graphql";
+
+	static final String GRAPHQL_EXTENSION = "io.github.nilwurtz.GraphqlBodyMatcher";
+
+	static final Path GRAPHQL_EXTENSION_JAR = Path.of("target", "test-wiremock-extension",
+			"wiremock-graphql-extension-0.7.1-jar-with-dependencies.jar");
+
+	private static final String RESOURCES = "org/testcontainers/workshop/TestcontainersWiremockExampleApplicationTests/";
+
+	/**
+	 * The content of the image, by its path in the image.
+	 */
+	private static final Map<String, String> CLASSPATH_CONTENT = Map.of(
+			"/home/wiremock/mappings/graphql.json", RESOURCES + "graphql-resource.json",
+			"/home/wiremock/mappings/graphql-batch.json", RESOURCES + "graphql-batch-resource.json",
+			"/home/wiremock/__files/testcontainers-java.json", RESOURCES + "testcontainers-java.json");
+
+	private static final String EXTENSION_PATH = "/var/wiremock/extensions/" + GRAPHQL_EXTENSION_JAR.getFileName();
+
+	private static volatile DockerImageName graphqlImage;
+
+	private static WireMockContainer shared;
+
+	private WireMockImages() {
+	}
+
+	/**
+	 * A new container from the baked image, baking it first if needed.
+	 */
+	static WireMockContainer graphql() {
+		return graphql(graphqlImage());
+	}
+
+	static WireMockContainer graphql(DockerImageName image) {
+		return new WireMockContainer(image).withCliArg("--extensions=" + GRAPHQL_EXTENSION);
+	}
+
+	/**
+	 * A container from the baked image that is started once and shared by all test classes of this JVM. It is marked
+	 * for reuse, so with {@code testcontainers.reuse.enable=true} it outlives the JVM and later runs start instantly.
+	 */
+	static synchronized WireMockContainer shared() {
+		if (shared == null) {
+			shared = graphql().withReuse(true);
+			shared.start();
+		}
+		return shared;
+	}
+
+	static DockerImageName graphqlImage() {
+		if (graphqlImage == null) {
+			synchronized (WireMockImages.class) {
+				if (graphqlImage == null) {
+					graphqlImage = bake();
+				}
+			}
+		}
+		return graphqlImage;
+	}
+
+	/**
+	 * Builds the image, unless an image with the same content is already there.
+	 */
+	static DockerImageName bake() {
+		return bake(REPOSITORY, false);
+	}
+
+	/**
+	 * Builds the image under {@code repository}, unless an image with the same content is already there. Without the
+	 * build cache, every layer is built again even if another repository has the same content.
+	 */
+	static DockerImageName bake(String repository, boolean noCache) {
+		Map<String, byte[]> content = readContent();
+		DockerImageName image = DockerImageName.parse(repository)
+				.withTag(DockerImageName.parse(BASE_IMAGE).getVersionPart() + "-" + hash(content))
+				.asCompatibleSubstituteFor("wiremock/wiremock");
+		long start = System.nanoTime();
+		if (exists(image)) {
+			logger.info("Using the baked image {}", image);
+			return image;
+		}
+		var dockerfile = new ImageFromDockerfile(image.asCanonicalNameString(), false)
+				.withBuildImageCmdModifier(cmd -> cmd.withNoCache(noCache));
+		var sources = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, byte[]> file : content.entrySet()) {
+			String source = "content/" + sources.size();
+			dockerfile.withFileFromTransferable(source, Transferable.of(file.getValue()));
+			sources.put(source, file.getKey());
+		}
+		dockerfile.withDockerfileFromBuilder(builder -> {
+			builder.from(BASE_IMAGE);
+			sources.forEach(builder::copy);
+		});
+		dockerfile.get();
+		logger.info("Baked {} in {} ms", image, Duration.ofNanos(System.nanoTime() - start).toMillis());
+		return image;
+	}
+
+	private static Map<String, byte[]> readContent() {
+		var content = new LinkedHashMap<String, byte[]>();
+		try {
+			content.put(EXTENSION_PATH, Files.readAllBytes(GRAPHQL_EXTENSION_JAR));
+			for (Map.Entry<String, String> resource : CLASSPATH_CONTENT.entrySet()) {
+				try (InputStream in = WireMockImages.class.getClassLoader().getResourceAsStream(resource.getValue())) {
+					if (in == null) {
+						throw new IllegalStateException("Could not find " + resource.getValue() + " on the classpath");
+					}
+					content.put(resource.getKey(), in.readAllBytes());
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not read the content of the WireMock image, did you run mvn compile?", ex);
+		}
+		return content;
+	}
+
+	private static String hash(Map<String, byte[]> content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(BASE_IMAGE.getBytes(StandardCharsets.UTF_8));
+			content.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(file -> {
+				digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+				digest.update(file.getValue());
+			});
+			return HexFormat.of().formatHex(digest.digest(), 0, 6);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static boolean exists(DockerImageName image) {
+		try {
+			DockerClientFactory.instance().client().inspectImageCmd(image.asCanonicalNameString()).exec();
+			return true;
+		}
+		catch (NotFoundException ex) {
+			return false;
+		}
+	}
+
+	public static void main(String[] args) {
+		System.out.println(graphqlImage().asCanonicalNameString());
+	}
+
+}
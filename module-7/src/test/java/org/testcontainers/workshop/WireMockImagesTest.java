@@ -0,0 +1,85 @@
+package org.testcontainers.workshop;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import org.wiremock.integrations.testcontainers.WireMockContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reports how long a WireMock container with the GraphQL extension and mappings takes to be ready, when they are
+ * copied into the container as before, from a freshly baked image, from the cached image, and when the shared
+ * container is already running.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class WireMockImagesTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(WireMockImagesTest.class);
+
+	private static WireMockContainer copied() {
+		return new WireMockContainer(WireMockImages.BASE_IMAGE)
+				.withMappingFromResource("graphql", TestcontainersWiremockExampleApplicationTests.class, "graphql-resource.json")
+				.withMappingFromResource("graphql-batch", TestcontainersWiremockExampleApplicationTests.class, "graphql-batch-resource.json")
+				.withExtensions("graphql",
+						List.of(WireMockImages.GRAPHQL_EXTENSION),
+						List.of(WireMockImages.GRAPHQL_EXTENSION_JAR.toFile()))
+				.withFileFromResource("testcontainers-java.json", TestcontainersWiremockExampleApplicationTests.class, "testcontainers-java.json");
+	}
+
+	private static Duration startToReady(Supplier<WireMockContainer> container) {
+		long start = System.nanoTime();
+		try (WireMockContainer wireMock = container.get()) {
+			wireMock.start();
+			assertThat(wireMock.isRunning()).isTrue();
+			return Duration.ofNanos(System.nanoTime() - start);
+		}
+	}
+
+	@Test
+	void reportsStartupTimes() {
+		// pull the base image and bake the cached one, so neither is part of any measurement
+		startToReady(WireMockImagesTest::copied);
+		WireMockImages.graphqlImage();
+
+		var times = new LinkedHashMap<String, Duration>();
+		times.put("copied", startToReady(WireMockImagesTest::copied));
+		// bakes under a throwaway repository, leaving the cached image and any container running from it alone
+		String repository = WireMockImages.REPOSITORY + "-" + UUID.randomUUID().toString().substring(0, 8);
+		var cold = new AtomicReference<DockerImageName>();
+		try {
+			times.put("baked, cold", startToReady(() -> {
+				cold.set(WireMockImages.bake(repository, true));
+				return WireMockImages.graphql(cold.get());
+			}));
+		}
+		finally {
+			if (cold.get() != null) {
+				DockerClientFactory.instance().client().removeImageCmd(cold.get().asCanonicalNameString()).exec();
+			}
+		}
+		times.put("baked, warm", startToReady(WireMockImages::graphql));
+		WireMockImages.shared();
+		long start = System.nanoTime();
+		assertThat(WireMockImages.shared().isRunning()).isTrue();
+		times.put("shared", Duration.ofNanos(System.nanoTime() - start));
+
+		var report = new StringBuilder("Start to ready of WireMock with the GraphQL mappings:");
+		for (Map.Entry<String, Duration> time : times.entrySet()) {
+			report.append("%n  %-12s %6d ms".formatted(time.getKey(), time.getValue().toMillis()));
+		}
+		logger.info(report.toString());
+	}
+
+}
@@ -0,0 +1,119 @@
+package org.testcontainers.containers;
+
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.model.PortBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a {@link ContainerDef} and applying it to a create command that is never executed,
+ * for both the mutable and the frozen definition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerDefBenchmark {
+
+    private ContainerDef definition;
+
+    private ContainerDef frozenDefinition;
+
+    @Setup
+    public void setUp() {
+        this.definition = newDefinition();
+        this.frozenDefinition = this.definition.freeze();
+    }
+
+    static ContainerDef newDefinition() {
+        ContainerDef def = new ContainerDef();
+        def.setImage("mongo:7.0.9");
+        def.addExposedTcpPorts(27017, 27018, 27019);
+        def.addPortBindings(PortBinding.parse("37017:27017"));
+        for (int i = 0; i < 10; i++) {
+            def.addEnvVar("ENV_" + i, "value-" + i);
+            def.addLabel("org.testcontainers.bench.label-" + i, "value-" + i);
+        }
+        def.addNetworkAliases("mongo", "mongodb");
+        def.setCommand("--replSet", "docker-rs");
+        return def;
+    }
+
+    /**
+     * A create command that only records what is set on it: every {@code withX} stores its argument, which
+     * {@code getX} returns. Its cost is part of every benchmark, and {@link #createCommandOnly()} measures it alone.
+     */
+    private static CreateContainerCmd newCreateCommand() {
+        Map<String, Object> values = new HashMap<>();
+        return (CreateContainerCmd) Proxy.newProxyInstance(
+                ContainerDefBenchmark.class.getClassLoader(),
+                new Class<?>[] { CreateContainerCmd.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("with") && args != null && args.length == 1) {
+                        values.put(name.substring("with".length()), args[0]);
+                        return proxy;
+                    }
+                    if (name.startsWith("get") && args == null) {
+                        Object value = values.get(name.substring("get".length()));
+                        if (value instanceof List && method.getReturnType().isArray()) {
+                            List<?> list = (List<?>) value;
+                            Object array = Array.newInstance(method.getReturnType().getComponentType(), list.size());
+                            for (int i = 0; i < list.size(); i++) {
+                                Array.set(array, i, list.get(i));
+                            }
+                            return array;
+                        }
+                        return value;
+                    }
+                    throw new UnsupportedOperationException("benchmark commands are never executed: " + method);
+                }
+        );
+    }
+
+    @Benchmark
+    public ContainerDef construct() {
+        return newDefinition();
+    }
+
+    @Benchmark
+    public ContainerDef constructAndFreeze() {
+        return newDefinition().freeze();
+    }
+
+    @Benchmark
+    public CreateContainerCmd applyTo() {
+        CreateContainerCmd command = newCreateCommand();
+        this.definition.applyTo(command);
+        return command;
+    }
+
+    @Benchmark
+    public CreateContainerCmd applyToFrozen() {
+        CreateContainerCmd command = newCreateCommand();
+        this.frozenDefinition.applyTo(command);
+        return command;
+    }
+
+    @Benchmark
+    public CreateContainerCmd createCommandOnly() {
+        return newCreateCommand();
+    }
+}
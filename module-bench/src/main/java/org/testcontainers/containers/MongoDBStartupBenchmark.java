@@ -0,0 +1,91 @@
+package org.testcontainers.containers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures start-to-ready time of {@link MongoDBContainer} against the local Docker daemon for every replica set
+ * init mode. A cold start creates a new container; a warm start hits a reusable container, which requires
+ * {@code testcontainers.reuse.enable=true} in {@code ~/.testcontainers.properties}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MongoDBStartupBenchmark {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("mongo:7.0.9");
+
+    @Param({ "EXEC_PER_STEP", "SINGLE_EXEC", "WIRE_PROTOCOL" })
+    public MongoDBContainer.ReplicaSetInitMode initMode;
+
+    @Param({ "cold", "warm" })
+    public String start;
+
+    private MongoDBContainer container;
+
+    /**
+     * The container warm runs reuse, kept running until the trial ends.
+     */
+    private MongoDBContainer reusable;
+
+    @Setup(Level.Trial)
+    public void pullImage() {
+        // the first start pulls the image
+        MongoDBContainer warmup = newContainer();
+        warmup.start();
+        if ("warm".equals(this.start)) {
+            // closing it would remove it, reuse or not, so it stays up for the iterations to attach to
+            this.reusable = warmup;
+        } else {
+            warmup.stop();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createContainer() {
+        this.container = newContainer();
+    }
+
+    private MongoDBContainer newContainer() {
+        return new MongoDBContainer(IMAGE).withReplicaSetInitMode(this.initMode).withReuse("warm".equals(this.start));
+    }
+
+    @Benchmark
+    public String startToReady() {
+        this.container.start();
+        return this.container.getConnectionString();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopContainer() {
+        // a warm container is the reusable one, which is stopped once the trial ends
+        if (!"warm".equals(this.start)) {
+            this.container.stop();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopReusableContainer() {
+        if (this.reusable != null) {
+            this.reusable.stop();
+            this.reusable = null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.testcontainers.containers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures start-to-ready time of {@link PostgreSQLContainer} against the local Docker daemon. A cold start creates
+ * a new container; a warm start hits a reusable container, which requires {@code testcontainers.reuse.enable=true}
+ * in {@code ~/.testcontainers.properties}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PostgreSQLStartupBenchmark {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("postgres:16-alpine");
+
+    @Param({ "cold", "warm" })
+    public String start;
+
+    private PostgreSQLContainer<?> container;
+
+    /**
+     * The container warm runs reuse, kept running until the trial ends.
+     */
+    private PostgreSQLContainer<?> reusable;
+
+    @Setup(Level.Trial)
+    public void pullImage() {
+        // the first start pulls the image
+        PostgreSQLContainer<?> warmup = newContainer();
+        warmup.start();
+        if ("warm".equals(this.start)) {
+            // closing it would remove it, reuse or not, so it stays up for the iterations to attach to
+            this.reusable = warmup;
+        } else {
+            warmup.stop();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createContainer() {
+        this.container = newContainer();
+    }
+
+    private PostgreSQLContainer<?> newContainer() {
+        return new PostgreSQLContainer<>(IMAGE).withReuse("warm".equals(this.start));
+    }
+
+    @Benchmark
+    public String startToReady() {
+        this.container.start();
+        return this.container.getJdbcUrl();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopContainer() {
+        // a warm container is the reusable one, which is stopped once the trial ends
+        if (!"warm".equals(this.start)) {
+            this.container.stop();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopReusableContainer() {
+        if (this.reusable != null) {
+            this.reusable.stop();
+            this.reusable = null;
+        }
+    }
+}
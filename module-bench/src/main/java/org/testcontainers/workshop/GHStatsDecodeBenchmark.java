@@ -0,0 +1,117 @@
+package org.testcontainers.workshop;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.graphql.GraphQlRequest;
+import org.springframework.graphql.GraphQlResponse;
+import org.springframework.graphql.client.ClientGraphQlResponse;
+import org.springframework.graphql.client.GraphQlClient;
+import org.springframework.graphql.client.GraphQlTransport;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a stats response of {@code repositories} aliased repositories through the GraphQL client, which
+ * reads the body into a map and binds every field from it, with the streaming {@link GHStatsDecoder}. Neither sends a
+ * request; run with {@code -prof gc} to see the allocation per response as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GHStatsDecodeBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * The size of the buffers the body arrives in, as a Netty client reads it.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({ "1", "50" })
+    public int repositories;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] body;
+
+    private List<byte[]> chunks;
+
+    private GraphQlClient graphQlClient;
+
+    private volatile Map<String, Object> responseMap;
+
+    @Setup
+    public void setUp() {
+        var json = new StringBuilder("{\"data\":{");
+        for (int i = 0; i < this.repositories; i++) {
+            json.append(i == 0 ? "" : ",").append("\"repo").append(i).append("\":{")
+                    .append("\"issues\":{\"totalCount\":").append(385 + i).append("},")
+                    .append("\"pullRequests\":{\"totalCount\":").append(90 + i).append("},")
+                    .append("\"stargazers\":{\"totalCount\":").append(6560 + i).append("},")
+                    .append("\"watchers\":{\"totalCount\":").append(142 + i).append("},")
+                    .append("\"forks\":{\"totalCount\":").append(1295 + i).append("}}");
+        }
+        json.append("}}");
+        this.body = json.toString().getBytes(StandardCharsets.UTF_8);
+        this.chunks = new ArrayList<>();
+        for (int offset = 0; offset < this.body.length; offset += CHUNK_SIZE) {
+            this.chunks.add(Arrays.copyOfRange(this.body, offset, Math.min(offset + CHUNK_SIZE, this.body.length)));
+        }
+        this.graphQlClient = GraphQlClient.builder(new GraphQlTransport() {
+
+            @Override
+            public Mono<GraphQlResponse> execute(GraphQlRequest request) {
+                return Mono.fromSupplier(() -> GraphQlTransport.createResponse(GHStatsDecodeBenchmark.this.responseMap));
+            }
+
+            @Override
+            public Flux<GraphQlResponse> executeSubscription(GraphQlRequest request) {
+                return Flux.error(new UnsupportedOperationException());
+            }
+
+        }).build();
+    }
+
+    @Benchmark
+    public void graphQlClient(Blackhole blackhole) throws Exception {
+        this.responseMap = this.objectMapper.readValue(this.body, MAP_TYPE);
+        ClientGraphQlResponse response = this.graphQlClient.document("query BatchStats").execute().block();
+        for (int i = 0; i < this.repositories; i++) {
+            blackhole.consume(response.field("repo" + i).toEntity(GitHubResponse.class));
+        }
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) {
+        Flux<DataBuffer> buffers = Flux.fromIterable(this.chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        GHStatsDecoder.Decoded decoded = GHStatsDecoder.decode(buffers).block();
+        for (int i = 0; i < this.repositories; i++) {
+            blackhole.consume(decoded.stats().get("repo" + i));
+        }
+    }
+}